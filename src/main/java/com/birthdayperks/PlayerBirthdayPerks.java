@@ -3,6 +3,7 @@ package com.birthdayperks;
 import com.birthdayperks.command.BirthdayCommand;
 import com.birthdayperks.command.BirthdayTabCompleter;
 import com.birthdayperks.database.Database;
+import com.birthdayperks.database.DatabaseExecutor;
 import com.birthdayperks.database.DatabaseFactory;
 import com.birthdayperks.gui.GuiManager;
 import com.birthdayperks.listener.PlayerJoinListener;
@@ -11,10 +12,15 @@ import com.birthdayperks.manager.MenuManager;
 import com.birthdayperks.manager.MessageManager;
 import com.birthdayperks.manager.PlayerDataManager;
 import com.birthdayperks.manager.RewardManager;
+import com.birthdayperks.sync.CacheInvalidationBus;
 import com.birthdayperks.task.BirthdayParticleTask;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
 public final class PlayerBirthdayPerks extends JavaPlugin {
@@ -25,7 +31,9 @@ public final class PlayerBirthdayPerks extends JavaPlugin {
     private MenuManager menuManager;
     private MessageManager messageManager;
     private Database database;
+    private CompletableFuture<Void> databaseReady;
     private PlayerDataManager playerDataManager;
+    private CacheInvalidationBus invalidationBus;
     private RewardManager rewardManager;
     private GuiManager guiManager;
     private BirthdayParticleTask particleTask;
@@ -33,6 +41,7 @@ public final class PlayerBirthdayPerks extends JavaPlugin {
     @Override
     public void onEnable() {
         instance = this;
+        long start = System.currentTimeMillis();
         
         // 初始化配置管理器
         this.configManager = new ConfigManager(this);
@@ -45,20 +54,16 @@ public final class PlayerBirthdayPerks extends JavaPlugin {
         // 初始化消息管理器
         this.messageManager = new MessageManager(this);
         
-        // 初始化数据库
-        try {
-            this.database = DatabaseFactory.createDatabase(this);
-            this.database.initialize();
-            log(Level.INFO, "数据库连接成功！");
-        } catch (Exception e) {
-            log(Level.SEVERE, "数据库初始化失败: " + e.getMessage());
-            e.printStackTrace();
-            getServer().getPluginManager().disablePlugin(this);
-            return;
-        }
+        // 初始化数据库（连接池和表结构迁移在后台线程中执行，不阻塞服务器启动）
+        this.database = DatabaseFactory.createDatabase(this);
+        this.databaseReady = initializeDatabase();
         
         // 初始化玩家数据管理器
         this.playerDataManager = new PlayerDataManager(this);
+
+        // 初始化跨服缓存同步（需要数据库连接，数据库就绪后启动）
+        this.invalidationBus = new CacheInvalidationBus(this);
+        runWhenDatabaseReady(invalidationBus::start);
         
         // 初始化奖励管理器
         this.rewardManager = new RewardManager(this);
@@ -78,7 +83,28 @@ public final class PlayerBirthdayPerks extends JavaPlugin {
         // 注册PlaceholderAPI扩展
         registerPlaceholderAPI();
         
-        log(Level.INFO, "PlayerBirthdayPerks v" + getDescription().getVersion() + " 已启用！");
+        log(Level.INFO, "PlayerBirthdayPerks v" + getDescription().getVersion() + " 已启用！(耗时 "
+                + (System.currentTimeMillis() - start) + "ms，数据库在后台加载)");
+    }
+
+    private CompletableFuture<Void> initializeDatabase() {
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                database.initialize();
+                log(Level.INFO, "数据库连接成功！(" + database.getDatabaseType() + "，耗时 "
+                        + (System.currentTimeMillis() - start) + "ms)");
+                ready.complete(null);
+            } catch (Exception e) {
+                getLogger().log(Level.SEVERE, "数据库初始化失败: " + e.getMessage(), e);
+                ready.completeExceptionally(e);
+                getServer().getScheduler().runTask(this, () -> getServer().getPluginManager().disablePlugin(this));
+            }
+        }, "BirthdayPerks-DB-Init");
+        thread.setDaemon(true);
+        thread.start();
+        return ready;
     }
 
     private void registerPlaceholderAPI() {
@@ -90,8 +116,35 @@ public final class PlayerBirthdayPerks extends JavaPlugin {
 
     @Override
     public void onDisable() {
-        // 关闭数据库连接
+        // 数据库仍在初始化时先等待其完成，之后的写入和关闭才不会落在初始化到一半的连接池上
+        if (databaseReady != null && !databaseReady.isDone()) {
+            log(Level.INFO, "等待数据库初始化完成...");
+            try {
+                databaseReady.get(configManager.getDatabaseExecutorShutdownTimeout(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException ignored) {
+                // 初始化失败或超时，直接关闭
+            }
+        }
+
+        // 写入延迟保存队列中的玩家数据
+        if (playerDataManager != null) {
+            playerDataManager.shutdown();
+        }
+
+        // 发出尚未发送的跨服缓存同步通知
+        if (invalidationBus != null) {
+            invalidationBus.close();
+        }
+
+        // 等待数据库队列中的任务完成后关闭数据库连接
         if (database != null) {
+            // 先等待写入队列，再关闭读线程池
+            shutdownExecutor(database.getWriteExecutor());
+            if (database.getExecutor() != database.getWriteExecutor()) {
+                shutdownExecutor(database.getExecutor());
+            }
             database.close();
         }
         
@@ -103,6 +156,16 @@ public final class PlayerBirthdayPerks extends JavaPlugin {
         log(Level.INFO, "PlayerBirthdayPerks 已禁用！");
     }
 
+    private void shutdownExecutor(DatabaseExecutor executor) {
+        int dropped = executor.shutdown(configManager.getDatabaseExecutorShutdownTimeout());
+        if (dropped > 0) {
+            log(Level.WARNING, "数据库线程池 " + executor.getName() + " 关闭超时，丢弃了 " + dropped + " 个未执行的任务");
+        }
+        if (executor.getRejectedCount() > 0) {
+            log(Level.WARNING, "运行期间共有 " + executor.getRejectedCount() + " 个数据库任务因队列已满被 " + executor.getName() + " 拒绝");
+        }
+    }
+
     private void registerCommands() {
         PluginCommand birthdayCmd = getCommand("pbp");
         if (birthdayCmd != null) {
@@ -150,10 +213,35 @@ public final class PlayerBirthdayPerks extends JavaPlugin {
         return database;
     }
 
+    /**
+     * 数据库是否已完成初始化
+     */
+    public boolean isDatabaseReady() {
+        return databaseReady != null && databaseReady.isDone() && !databaseReady.isCompletedExceptionally();
+    }
+
+    /**
+     * 数据库初始化完成的Future，初始化失败时异常完成
+     */
+    public CompletableFuture<Void> getDatabaseReady() {
+        return databaseReady;
+    }
+
+    /**
+     * 数据库初始化完成后在主线程中执行任务
+     */
+    public void runWhenDatabaseReady(Runnable task) {
+        databaseReady.thenRun(() -> getServer().getScheduler().runTask(this, task));
+    }
+
     public PlayerDataManager getPlayerDataManager() {
         return playerDataManager;
     }
 
+    public CacheInvalidationBus getInvalidationBus() {
+        return invalidationBus;
+    }
+
     public RewardManager getRewardManager() {
         return rewardManager;
     }
@@ -1,6 +1,12 @@
 package com.birthdayperks.command;
 
 import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.database.DataMigrator;
+import com.birthdayperks.database.Database;
+import com.birthdayperks.database.DatabaseExecutor;
+import com.birthdayperks.database.DatabaseFactory;
+import com.birthdayperks.database.DatabaseMetrics;
+import com.birthdayperks.database.LatencyHistogram;
 import com.birthdayperks.gui.AdminGui;
 import com.birthdayperks.gui.ConfigurableGui;
 import com.birthdayperks.gui.MainMenuGui;
@@ -8,9 +14,9 @@ import com.birthdayperks.manager.ConfigManager;
 import com.birthdayperks.manager.MessageManager;
 import com.birthdayperks.manager.PlayerDataManager;
 import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.sync.CacheInvalidationBus;
 import com.birthdayperks.util.DateUtil;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -18,6 +24,8 @@ import org.bukkit.entity.Player;
 
 import java.time.LocalDate;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 public class BirthdayCommand implements CommandExecutor {
 
@@ -35,6 +43,13 @@ public class BirthdayCommand implements CommandExecutor {
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // 数据库加载完成前只允许查看帮助
+        boolean help = args.length > 0 && args[0].equalsIgnoreCase("help");
+        if (!help && !plugin.isDatabaseReady()) {
+            messageManager.send(sender, "general.database-loading");
+            return true;
+        }
+
         if (args.length == 0) {
             // 无参数时打开GUI（玩家）或显示帮助（控制台）
             return handleOpenGui(sender);
@@ -270,16 +285,11 @@ public class BirthdayCommand implements CommandExecutor {
                             return;
                         }
 
-                        // 发放奖励
-                        plugin.getRewardManager().giveRewards(player, data).thenAccept(success -> {
-                            if (success) {
-                                data.markClaimed();
-                                playerDataManager.savePlayerData(data);
+                        if (!configManager.isRewardsEnabled()) {
+                            return;
+                        }
 
-                                Bukkit.getScheduler().runTask(plugin, () ->
-                                        messageManager.sendRewardSuccess(player));
-                            }
-                        });
+                        plugin.getRewardManager().claimRewards(player, data);
                     });
                 });
 
@@ -357,6 +367,8 @@ public class BirthdayCommand implements CommandExecutor {
             case "reset" -> handleAdminReset(sender, args);
             case "give" -> handleAdminGive(sender, args);
             case "check" -> handleAdminCheck(sender, args);
+            case "stats" -> handleAdminStats(sender, args);
+            case "migrate" -> handleAdminMigrate(sender, args);
             default -> {
                 showAdminHelp(sender);
                 yield true;
@@ -397,19 +409,26 @@ public class BirthdayCommand implements CommandExecutor {
         }
 
         String targetName = args[2];
-        OfflinePlayer target = Bukkit.getOfflinePlayer(targetName);
-
-        if (target.getUniqueId() == null) {
-            messageManager.send(sender, "general.player-not-found", Map.of("player", targetName));
-            return true;
-        }
-
-        playerDataManager.deletePlayerData(target.getUniqueId())
-                .thenRun(() -> {
-                    Bukkit.getScheduler().runTask(plugin, () ->
-                            messageManager.send(sender, "admin.reset-success",
-                                    Map.of("player", targetName)));
-                });
+        findPlayerData(targetName)
+                .thenCompose(target -> {
+                    if (target == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return playerDataManager.deletePlayerData(target.getUuid()).thenApply(v -> target);
+                })
+                .whenComplete((target, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.log(Level.WARNING, "重置玩家 " + targetName + " 的生日数据失败: " + error.getMessage());
+                        messageManager.send(sender, "general.database-error");
+                        return;
+                    }
+                    if (target == null) {
+                        messageManager.send(sender, "general.player-not-found", Map.of("player", targetName));
+                        return;
+                    }
+                    messageManager.send(sender, "admin.reset-success",
+                            Map.of("player", target.getPlayerName()));
+                }));
 
         return true;
     }
@@ -462,16 +481,24 @@ public class BirthdayCommand implements CommandExecutor {
         }
 
         String targetName = args[2];
-        OfflinePlayer target = Bukkit.getOfflinePlayer(targetName);
-
-        playerDataManager.getPlayerData(target.getUniqueId())
-                .thenAccept(data -> {
+        findPlayerData(targetName)
+                .whenComplete((data, error) -> {
                     Bukkit.getScheduler().runTask(plugin, () -> {
+                        if (error != null) {
+                            plugin.log(Level.WARNING, "查询玩家 " + targetName + " 的生日数据失败: " + error.getMessage());
+                            messageManager.send(sender, "general.database-error");
+                            return;
+                        }
+                        if (data == null) {
+                            messageManager.send(sender, "general.player-not-found", Map.of("player", targetName));
+                            return;
+                        }
+
                         messageManager.sendRaw(sender, "admin.check.header");
                         messageManager.sendRaw(sender, "admin.check.player",
-                                Map.of("player", targetName));
+                                Map.of("player", data.getPlayerName()));
 
-                        if (data == null || !data.hasBirthdaySet()) {
+                        if (!data.hasBirthdaySet()) {
                             messageManager.sendRaw(sender, "admin.check.not-set");
                         } else {
                             LocalDate birthDate = data.getBirthDate();
@@ -503,6 +530,165 @@ public class BirthdayCommand implements CommandExecutor {
         return true;
     }
 
+    /**
+     * 按名字查找玩家数据：在线玩家走缓存，离线玩家使用数据库中的名字索引，不会向Mojang查询
+     *
+     * @return 找不到时为null
+     */
+    private CompletableFuture<PlayerData> findPlayerData(String playerName) {
+        Player online = Bukkit.getPlayerExact(playerName);
+        if (online != null) {
+            return playerDataManager.getPlayerData(online.getUniqueId());
+        }
+        return plugin.getDatabase().findByName(playerName);
+    }
+
+    private boolean handleAdminStats(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("birthday.admin.stats")) {
+            messageManager.send(sender, "general.no-permission");
+            return true;
+        }
+
+        if (args.length < 3) {
+            showPlayerStats(sender);
+            return true;
+        }
+
+        if (!args[2].equalsIgnoreCase("db")) {
+            messageManager.send(sender, "general.invalid-args");
+            return true;
+        }
+
+        showDatabaseStats(sender);
+        return true;
+    }
+
+    private void showPlayerStats(CommandSender sender) {
+        playerDataManager.getStatistics().thenAccept(stats -> Bukkit.getScheduler().runTask(plugin, () -> {
+            messageManager.sendRaw(sender, "admin.stats.players.header");
+            messageManager.sendRaw(sender, "admin.stats.players.total",
+                    Map.of("total", String.valueOf(stats.getTotalPlayers()),
+                            "with-birthday", String.valueOf(stats.getPlayersWithBirthday()),
+                            "without-birthday", String.valueOf(stats.getPlayersWithoutBirthday())));
+            messageManager.sendRaw(sender, "admin.stats.players.claims",
+                    Map.of("year", String.valueOf(LocalDate.now().getYear()),
+                            "count", String.valueOf(stats.getClaimsThisYear())));
+            messageManager.sendRaw(sender, "admin.stats.players.avatar-frames",
+                    Map.of("count", String.valueOf(stats.getActiveAvatarFrames())));
+
+            // 每行显示6个月
+            for (int first = 1; first <= 12; first += 6) {
+                StringBuilder line = new StringBuilder();
+                for (int month = first; month < first + 6; month++) {
+                    line.append(messageManager.getMessage("admin.stats.players.month",
+                            Map.of("month", String.valueOf(month),
+                                    "count", String.valueOf(stats.getBirthdaysInMonth(month)))));
+                }
+                sender.sendMessage(line.toString());
+            }
+
+            messageManager.sendRaw(sender, "admin.stats.players.footer",
+                    Map.of("seconds", String.valueOf((System.currentTimeMillis() - stats.getComputedAt()) / 1000)));
+        }));
+    }
+
+    private boolean handleAdminMigrate(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("birthday.admin.migrate")) {
+            messageManager.send(sender, "general.no-permission");
+            return true;
+        }
+
+        if (args.length < 4 || !DatabaseFactory.TYPES.contains(args[2].toLowerCase())
+                || !DatabaseFactory.TYPES.contains(args[3].toLowerCase())) {
+            messageManager.send(sender, "admin.migrate.usage",
+                    Map.of("types", String.join(", ", DatabaseFactory.TYPES)));
+            return true;
+        }
+
+        if (args[2].equalsIgnoreCase(args[3])) {
+            messageManager.send(sender, "admin.migrate.same-type");
+            return true;
+        }
+
+        // 进度消息在迁移线程中产生，切回主线程发送
+        DataMigrator migrator = new DataMigrator(plugin, args[2], args[3], (path, placeholders) ->
+                Bukkit.getScheduler().runTask(plugin, () -> messageManager.send(sender, path, placeholders)));
+        if (!migrator.start()) {
+            messageManager.send(sender, "admin.migrate.running");
+        }
+        return true;
+    }
+
+    private void showDatabaseStats(CommandSender sender) {
+        Database database = plugin.getDatabase();
+        DatabaseMetrics metrics = database.getMetrics();
+
+        messageManager.sendRaw(sender, "admin.stats.db.header");
+        messageManager.sendRaw(sender, "admin.stats.db.type",
+                Map.of("type", database.getDatabaseType()));
+
+        CacheInvalidationBus bus = plugin.getInvalidationBus();
+        if (bus != null && bus.isEnabled()) {
+            messageManager.sendRaw(sender, "admin.stats.db.sync",
+                    Map.of("transport", bus.getTransportName(),
+                            "source", bus.getSource(),
+                            "published", String.valueOf(bus.getPublishedCount()),
+                            "received", String.valueOf(bus.getReceivedCount())));
+        }
+
+        DatabaseExecutor executor = database.getExecutor();
+        messageManager.sendRaw(sender, "admin.stats.db.executor",
+                Map.of("name", executor.getName(),
+                        "active", String.valueOf(executor.getActiveCount()),
+                        "threads", String.valueOf(executor.getPoolSize()),
+                        "queue", String.valueOf(executor.getQueueSize()),
+                        "capacity", String.valueOf(executor.getQueueCapacity()),
+                        "rejected", String.valueOf(executor.getRejectedCount())));
+
+        if (metrics == null) {
+            messageManager.sendRaw(sender, "admin.stats.db.disabled");
+            messageManager.sendRaw(sender, "admin.stats.db.footer");
+            return;
+        }
+
+        for (DatabaseMetrics.PoolMetrics pool : metrics.getPools()) {
+            LatencyHistogram wait = pool.getConnectionWait();
+            messageManager.sendRaw(sender, "admin.stats.db.pool",
+                    Map.of("pool", pool.getName(),
+                            "active", String.valueOf(pool.getActiveConnections()),
+                            "idle", String.valueOf(pool.getIdleConnections()),
+                            "max", String.valueOf(pool.getMaxConnections()),
+                            "pending", String.valueOf(pool.getPendingThreads()),
+                            "p50", formatMillis(wait.getPercentileMillis(50)),
+                            "p99", formatMillis(wait.getPercentileMillis(99)),
+                            "wait-max", formatMillis(wait.getMaxMillis()),
+                            "timeouts", String.valueOf(pool.getTimeouts())));
+        }
+
+        Map<String, LatencyHistogram> operations = metrics.getOperations();
+        if (operations.isEmpty()) {
+            messageManager.sendRaw(sender, "admin.stats.db.no-operations");
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : operations.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            messageManager.sendRaw(sender, "admin.stats.db.operation",
+                    Map.of("name", entry.getKey(),
+                            "count", String.valueOf(histogram.getCount()),
+                            "errors", String.valueOf(histogram.getErrorCount()),
+                            "rows", String.valueOf(histogram.getRows()),
+                            "p50", formatMillis(histogram.getPercentileMillis(50)),
+                            "p95", formatMillis(histogram.getPercentileMillis(95)),
+                            "p99", formatMillis(histogram.getPercentileMillis(99)),
+                            "max", formatMillis(histogram.getMaxMillis())));
+        }
+
+        messageManager.sendRaw(sender, "admin.stats.db.footer");
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format("%.1f", millis);
+    }
+
     private void showHelp(CommandSender sender) {
         messageManager.sendRaw(sender, "help.header");
         messageManager.sendList(sender, "help.commands");
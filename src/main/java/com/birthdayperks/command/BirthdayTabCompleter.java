@@ -1,6 +1,7 @@
 package com.birthdayperks.command;
 
 import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.database.DatabaseFactory;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -18,7 +19,7 @@ public class BirthdayTabCompleter implements TabCompleter {
     private final PlayerBirthdayPerks plugin;
 
     private static final List<String> MAIN_COMMANDS = Arrays.asList("gui", "set", "info", "claim", "help", "admin");
-    private static final List<String> ADMIN_COMMANDS = Arrays.asList("gui", "reload", "reset", "give", "check");
+    private static final List<String> ADMIN_COMMANDS = Arrays.asList("gui", "reload", "reset", "give", "check", "stats", "migrate");
     private static final List<String> MONTHS = IntStream.rangeClosed(1, 12)
             .mapToObj(String::valueOf)
             .collect(Collectors.toList());
@@ -92,6 +93,14 @@ public class BirthdayTabCompleter implements TabCompleter {
                             .map(Player::getName)
                             .filter(name -> name.toLowerCase().startsWith(input))
                             .collect(Collectors.toList()));
+                } else if (adminSubCommand.equals("stats")) {
+                    String input = args[2].toLowerCase();
+                    if ("db".startsWith(input)) {
+                        completions.add("db");
+                    }
+                } else if (adminSubCommand.equals("migrate")) {
+                    // 数据库类型补全
+                    completions.addAll(getDatabaseTypeCompletions(args[2]));
                 }
             }
         } else if (args.length == 4) {
@@ -100,12 +109,22 @@ public class BirthdayTabCompleter implements TabCompleter {
             if (subCommand.equals("set") && sender.hasPermission("birthday.set")) {
                 // 日期补全 (根据年份和月份)
                 completions.addAll(getDayCompletions(args));
+            } else if (subCommand.equals("admin") && sender.hasPermission("birthday.admin")
+                    && args[1].equalsIgnoreCase("migrate")) {
+                completions.addAll(getDatabaseTypeCompletions(args[3]));
             }
         }
 
         return completions;
     }
 
+    private List<String> getDatabaseTypeCompletions(String arg) {
+        String input = arg.toLowerCase();
+        return DatabaseFactory.TYPES.stream()
+                .filter(type -> type.startsWith(input))
+                .collect(Collectors.toList());
+    }
+
     private List<String> getDayCompletions(String[] args) {
         List<String> days = new ArrayList<>();
         try {
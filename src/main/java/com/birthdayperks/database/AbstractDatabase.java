@@ -2,155 +2,705 @@ package com.birthdayperks.database;
 
 import com.birthdayperks.PlayerBirthdayPerks;
 import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.model.PlayerStatistics;
+import com.birthdayperks.util.DateUtil;
 import com.zaxxer.hikari.HikariDataSource;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.MonthDay;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 public abstract class AbstractDatabase implements Database {
 
     protected final PlayerBirthdayPerks plugin;
     protected HikariDataSource dataSource;
+    protected HikariDataSource readDataSource;
+    protected final DatabaseExecutor executor;
+    protected final DatabaseExecutor writeExecutor;
+    protected final SqlDialect dialect;
+    protected final UuidStorage uuidStorage;
+    protected PlayerStatements statements;
+    private ClaimHistoryAppender claimHistory;
 
     protected static final String TABLE_NAME = "birthday_players";
+    protected static final String CLAIM_TABLE_NAME = "birthday_claims";
+    protected static final int IN_QUERY_CHUNK_SIZE = 500;
+    protected static final int CONVERT_CHUNK_SIZE = 1000;
 
-    public AbstractDatabase(PlayerBirthdayPerks plugin) {
+    // 查询列，顺序与下面的列下标一致
+    protected static final String COLUMNS = "uuid, player_name, birth_year, birthday_month, birthday_day, " +
+            "last_claim_year, last_claim_date, modify_count_this_year, last_modify_year, " +
+            "avatar_frame_expiry, created_at, updated_at, total_claim_count, first_claim_date";
+    protected static final int COL_UUID = 1;
+    protected static final int COL_PLAYER_NAME = 2;
+    protected static final int COL_BIRTH_YEAR = 3;
+    protected static final int COL_BIRTHDAY_MONTH = 4;
+    protected static final int COL_BIRTHDAY_DAY = 5;
+    protected static final int COL_LAST_CLAIM_YEAR = 6;
+    protected static final int COL_LAST_CLAIM_DATE = 7;
+    protected static final int COL_MODIFY_COUNT_THIS_YEAR = 8;
+    protected static final int COL_LAST_MODIFY_YEAR = 9;
+    protected static final int COL_AVATAR_FRAME_EXPIRY = 10;
+    protected static final int COL_CREATED_AT = 11;
+    protected static final int COL_UPDATED_AT = 12;
+    protected static final int COL_TOTAL_CLAIM_COUNT = 13;
+    protected static final int COL_FIRST_CLAIM_DATE = 14;
+
+    // 写入列：查询列 + 生日在闰年中的序号和小写玩家名（仅用于索引查询，不需要读回）
+    protected static final String INSERT_COLUMNS = COLUMNS + ", birthday_doy, player_name_lower";
+    protected static final int COL_BIRTHDAY_DOY = 15;
+    protected static final int COL_PLAYER_NAME_LOWER = 16;
+
+    // 由月日计算 birthday_doy 的SQL表达式（闰年累计天数），用于回填旧数据
+    protected static final String BIRTHDAY_DOY_EXPR = "(CASE birthday_month " +
+            "WHEN 1 THEN 0 WHEN 2 THEN 31 WHEN 3 THEN 60 WHEN 4 THEN 91 " +
+            "WHEN 5 THEN 121 WHEN 6 THEN 152 WHEN 7 THEN 182 WHEN 8 THEN 213 " +
+            "WHEN 9 THEN 244 WHEN 10 THEN 274 WHEN 11 THEN 305 WHEN 12 THEN 335 END + birthday_day)";
+
+    public AbstractDatabase(PlayerBirthdayPerks plugin, SqlDialect dialect) {
         this.plugin = plugin;
+        this.dialect = dialect;
+        this.uuidStorage = UuidStorage.fromConfig(plugin.getConfigManager().getUuidStorage());
+        this.executor = new DatabaseExecutor("BirthdayPerks-DB",
+                plugin.getConfigManager().getDatabaseExecutorThreads(),
+                plugin.getConfigManager().getDatabaseExecutorQueueSize());
+        this.writeExecutor = createWriteExecutor();
     }
 
     protected abstract HikariDataSource createDataSource();
 
+    /**
+     * 创建只读连接池，返回null时读写共用 {@link #dataSource}
+     */
+    protected HikariDataSource createReadDataSource() {
+        return null;
+    }
+
+    /**
+     * 创建写入线程池：所有写操作按提交顺序在单个线程中执行
+     * 同一玩家的插入、条件更新和删除不会乱序，例如领取时的条件更新不会先于新玩家的插入执行
+     */
+    protected DatabaseExecutor createWriteExecutor() {
+        return new DatabaseExecutor("BirthdayPerks-DB-Writer", 1,
+                plugin.getConfigManager().getDatabaseExecutorQueueSize());
+    }
+
     @Override
     public void initialize() throws Exception {
+        long start = System.currentTimeMillis();
+        this.statements = new PlayerStatements(dialect);
         this.dataSource = createDataSource();
-        createTables();
+        long poolReady = System.currentTimeMillis();
+        new SchemaMigrator(plugin, dataSource).migrate(getMigrations());
+        long migrated = System.currentTimeMillis();
+        convertUuidStorage();
+        long converted = System.currentTimeMillis();
+        this.readDataSource = createReadDataSource();
+        this.claimHistory = new ClaimHistoryAppender(plugin, dataSource, writeExecutor, statements.insertClaim);
+        claimHistory.start();
+        long end = System.currentTimeMillis();
+
+        plugin.log(Level.INFO, getDatabaseType() + " 初始化阶段耗时: 连接池 " + (poolReady - start)
+                + "ms，表结构迁移 " + (migrated - poolReady)
+                + "ms，UUID格式检查 " + (converted - migrated)
+                + "ms，只读连接池 " + (end - converted) + "ms");
     }
 
     @Override
     public void close() {
+        if (claimHistory != null) {
+            claimHistory.close();
+            claimHistory = null;
+        }
+        if (!writeExecutor.isShutdown()) {
+            writeExecutor.shutdown(0);
+        }
+        if (!executor.isShutdown()) {
+            executor.shutdown(0);
+        }
+        if (readDataSource != null && !readDataSource.isClosed()) {
+            readDataSource.close();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
     }
 
-    protected void createTables() throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
-                "uuid VARCHAR(36) PRIMARY KEY, " +
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public DatabaseExecutor getWriteExecutor() {
+        return writeExecutor;
+    }
+
+    @Override
+    public List<HikariDataSource> getDataSources() {
+        return readDataSource != null ? List.of(dataSource, readDataSource) : List.of(dataSource);
+    }
+
+    /**
+     * 获取用于查询的连接池
+     */
+    protected HikariDataSource getReadDataSource() {
+        return readDataSource != null ? readDataSource : dataSource;
+    }
+
+    /**
+     * 获取查询指定玩家时使用的连接池，刚写入过的玩家从主库读取
+     */
+    protected HikariDataSource getReadDataSource(UUID uuid) {
+        return readsFromPrimary(uuid) ? dataSource : getReadDataSource();
+    }
+
+    /**
+     * 该玩家的读取是否必须走主库，只读连接池存在复制延迟时由子类覆盖
+     */
+    protected boolean readsFromPrimary(UUID uuid) {
+        return false;
+    }
+
+    /**
+     * 玩家数据已写入主库后调用
+     */
+    protected void onWritten(UUID uuid) {
+    }
+
+    @Override
+    public void markRemoteWrite(UUID uuid) {
+        onWritten(uuid);
+    }
+
+    /**
+     * 在数据库线程池中执行有返回值的任务，队列已满时返回失败的Future
+     */
+    protected <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            plugin.log(Level.WARNING, "数据库任务被拒绝: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 在数据库线程池中执行无返回值的任务，队列已满时返回失败的Future
+     */
+    protected CompletableFuture<Void> runAsync(Runnable runnable) {
+        try {
+            return CompletableFuture.runAsync(runnable, executor);
+        } catch (RejectedExecutionException e) {
+            plugin.log(Level.WARNING, "数据库任务被拒绝: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 在写入线程池中执行有返回值的写操作，队列已满时返回失败的Future
+     */
+    protected <T> CompletableFuture<T> supplyWriteAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, writeExecutor);
+        } catch (RejectedExecutionException e) {
+            plugin.log(Level.WARNING, "数据库写入任务被拒绝: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 在写入线程池中执行写操作，队列已满时返回失败的Future
+     */
+    protected CompletableFuture<Void> runWriteAsync(Runnable runnable) {
+        try {
+            return CompletableFuture.runAsync(runnable, writeExecutor);
+        } catch (RejectedExecutionException e) {
+            plugin.log(Level.WARNING, "数据库写入任务被拒绝: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 获取数据库结构迁移列表，按版本号顺序执行，已执行过的版本会被跳过
+     * 所有数据库共用同一个列表，语法上的差异由 {@link SqlDialect} 处理
+     */
+    protected List<Migration> getMigrations() {
+        return List.of(
+                new Migration(1, "创建玩家数据表", conn -> {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute(createPlayerTableSql(TABLE_NAME, uuidStorage.getSqlType(dialect)));
+                    }
+                }),
+                // 旧版本的MySQL建表语句缺少 birth_year 列
+                new Migration(2, "添加 birth_year 列", conn ->
+                        addColumnIfMissing(conn, "birth_year", "SMALLINT")),
+                new Migration(3, "创建生日索引", conn ->
+                        createIndexIfMissing(conn, "idx_birthday", "birthday_month, birthday_day")),
+                new Migration(4, "添加 birthday_doy 列及索引", conn -> {
+                    addColumnIfMissing(conn, "birthday_doy", "SMALLINT");
+                    backfillBirthdayDoy(conn);
+                    createIndexIfMissing(conn, "idx_birthday_doy", "birthday_doy");
+                }),
+                new Migration(5, "创建玩家列表排序索引", this::createPageIndexes),
+                new Migration(6, "添加 player_name_lower 列及索引", conn -> {
+                    addColumnIfMissing(conn, "player_name_lower", "VARCHAR(16)");
+                    backfillPlayerNameLower(conn);
+                    createIndexIfMissing(conn, "idx_player_name_lower", "player_name_lower");
+                }),
+                new Migration(7, "添加领取统计列和领取记录表", this::createClaimHistory)
+        );
+    }
+
+    /**
+     * 生成玩家数据表的建表语句（当前的完整结构）
+     * 索引不写在建表语句里，由迁移单独创建：H2中索引名在整个库内唯一，转换UUID格式时新旧两张表会冲突
+     * SQLite 把名称中含 INT 的类型都视为 INTEGER，TINYINT 和 SMALLINT 同样可用
+     */
+    protected String createPlayerTableSql(String table, String uuidType) {
+        return "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                "uuid " + uuidType + " PRIMARY KEY, " +
                 "player_name VARCHAR(16), " +
-                "birth_year INT, " +
-                "birthday_month INT, " +
-                "birthday_day INT, " +
-                "last_claim_year INT DEFAULT 0, " +
+                "birth_year SMALLINT, " +
+                "birthday_month TINYINT, " +
+                "birthday_day TINYINT, " +
+                "last_claim_year SMALLINT DEFAULT 0, " +
                 "last_claim_date DATE, " +
-                "modify_count_this_year INT DEFAULT 0, " +
-                "last_modify_year INT DEFAULT 0, " +
+                "total_claim_count INT DEFAULT 0, " +
+                "first_claim_date DATE, " +
+                "modify_count_this_year TINYINT DEFAULT 0, " +
+                "last_modify_year SMALLINT DEFAULT 0, " +
                 "avatar_frame_expiry DATE, " +
                 "created_at DATE, " +
-                "updated_at DATE" +
-                ")";
+                "updated_at DATE, " +
+                "birthday_doy SMALLINT, " +
+                "player_name_lower VARCHAR(16)" +
+                ")" + dialect.tableOptions();
+    }
+
+    protected boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, identifier(meta, table), null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, identifier(meta, table), false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+    private static String identifier(DatabaseMetaData meta, String name) throws SQLException {
+        return meta.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+
+    protected void addColumnIfMissing(Connection conn, String column, String definition) throws SQLException {
+        if (columnExists(conn, TABLE_NAME, column)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    protected void createIndexIfMissing(Connection conn, String index, String columns) throws SQLException {
+        if (indexExists(conn, TABLE_NAME, index)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX " + index + " ON " + TABLE_NAME + " (" + columns + ")");
         }
+    }
+
+    /**
+     * 配置的UUID存储格式与现有表不一致时，分块把数据复制到新格式的表中再替换原表
+     * 复制期间原表保持不变，中途失败时下次启动会重新开始
+     */
+    private void convertUuidStorage() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            UuidStorage current = detectUuidStorage(conn);
+            if (current == uuidStorage) {
+                return;
+            }
 
-        // 尝试添加birth_year列（升级旧数据库）
-        tryAddBirthYearColumn();
+            String target = TABLE_NAME + "_convert";
+            String backup = TABLE_NAME + "_old";
+            long start = System.currentTimeMillis();
+            plugin.log(Level.INFO, "正在将玩家UUID存储格式从 " + current + " 转换为 " + uuidStorage + "...");
 
-        // 创建索引以优化生日查询
-        createIndexIfNotExists();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS " + target);
+                stmt.execute("DROP TABLE IF EXISTS " + backup);
+                stmt.execute(createPlayerTableSql(target, uuidStorage.getSqlType(dialect)));
+            }
+            long copied = copyPlayerTable(conn, current, target);
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : dialect.swapTables(TABLE_NAME, target, backup)) {
+                    stmt.execute(sql);
+                }
+                stmt.execute("DROP TABLE " + backup);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            createIndexIfMissing(conn, "idx_birthday", "birthday_month, birthday_day");
+            createIndexIfMissing(conn, "idx_birthday_doy", "birthday_doy");
+            createPageIndexes(conn);
+            createIndexIfMissing(conn, "idx_player_name_lower", "player_name_lower");
+
+            plugin.log(Level.INFO, "UUID存储格式转换完成，共 " + copied + " 条数据，耗时 "
+                    + (System.currentTimeMillis() - start) + "ms");
+        }
     }
 
-    protected void tryAddBirthYearColumn() {
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute("ALTER TABLE " + TABLE_NAME + " ADD COLUMN birth_year INT");
+    private UuidStorage detectUuidStorage(Connection conn) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, identifier(meta, TABLE_NAME), null)) {
+            while (rs.next()) {
+                if ("uuid".equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    String type = rs.getString("TYPE_NAME");
+                    return type != null && type.toUpperCase().contains("CHAR") ? UuidStorage.TEXT : UuidStorage.BINARY;
+                }
+            }
+        }
+        return uuidStorage;
+    }
+
+    /**
+     * 按主键分块复制，每块单独提交，避免长时间持有锁
+     */
+    private long copyPlayerTable(Connection conn, UuidStorage source, String target) throws SQLException {
+        String select = "SELECT " + INSERT_COLUMNS + " FROM " + TABLE_NAME;
+        String firstChunk = select + " ORDER BY uuid LIMIT " + CONVERT_CHUNK_SIZE;
+        String nextChunk = select + " WHERE uuid > ? ORDER BY uuid LIMIT " + CONVERT_CHUNK_SIZE;
+        String insert = "INSERT INTO " + target + " (" + INSERT_COLUMNS + ") VALUES ("
+                + SqlDialect.placeholders(COL_PLAYER_NAME_LOWER) + ")";
+
+        UUID last = null;
+        long copied = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement insertStmt = conn.prepareStatement(insert)) {
+            while (true) {
+                int rows = 0;
+                try (PreparedStatement selectStmt = conn.prepareStatement(last == null ? firstChunk : nextChunk)) {
+                    if (last != null) {
+                        source.bind(selectStmt, 1, last);
+                    }
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        while (rs.next()) {
+                            last = source.read(rs, COL_UUID);
+                            uuidStorage.bind(insertStmt, COL_UUID, last);
+                            for (int i = COL_UUID + 1; i <= COL_PLAYER_NAME_LOWER; i++) {
+                                insertStmt.setObject(i, rs.getObject(i));
+                            }
+                            insertStmt.addBatch();
+                            rows++;
+                        }
+                    }
+                }
+                if (rows == 0) {
+                    break;
+                }
+                insertStmt.executeBatch();
+                conn.commit();
+                copied += rows;
+                if (rows < CONVERT_CHUNK_SIZE) {
+                    break;
+                }
+            }
         } catch (SQLException e) {
-            // 列已存在，忽略错误
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return copied;
+    }
+
+    /**
+     * 创建分页浏览玩家列表时按名字和领取日期排序所用的索引
+     */
+    protected void createPageIndexes(Connection conn) throws SQLException {
+        createIndexIfMissing(conn, "idx_player_name", "player_name, uuid");
+        createIndexIfMissing(conn, "idx_last_claim", "last_claim_date, uuid");
+    }
+
+    /**
+     * 添加玩家行上的领取统计列并创建领取记录表
+     * 旧数据只保存了最近一次领取，领取过的玩家按领取过一次回填
+     */
+    protected void createClaimHistory(Connection conn) throws SQLException {
+        addColumnIfMissing(conn, "total_claim_count", "INT DEFAULT 0");
+        addColumnIfMissing(conn, "first_claim_date", "DATE");
+        try (Statement stmt = conn.createStatement()) {
+            int updated = stmt.executeUpdate("UPDATE " + TABLE_NAME +
+                    " SET total_claim_count = 1, first_claim_date = last_claim_date" +
+                    " WHERE last_claim_year > 0 AND COALESCE(total_claim_count, 0) = 0");
+            if (updated > 0) {
+                plugin.log(Level.INFO, "已为 " + updated + " 条玩家数据回填领取次数");
+            }
+            stmt.execute(createClaimTableSql());
+        }
+    }
+
+    /**
+     * 领取记录表，主键 (uuid, claimed_at) 使同一玩家的记录在索引中相邻
+     * uuid 固定以文本保存，不随 uuid-storage 配置转换
+     */
+    protected String createClaimTableSql() {
+        return "CREATE TABLE IF NOT EXISTS " + CLAIM_TABLE_NAME + " (" +
+                "uuid VARCHAR(36) NOT NULL, " +
+                "claim_year INT NOT NULL, " +
+                "claimed_at BIGINT NOT NULL, " +
+                "server_id VARCHAR(64), " +
+                "PRIMARY KEY (uuid, claimed_at))" + dialect.tableOptions();
+    }
+
+    /**
+     * 由 player_name 回填 player_name_lower 列
+     */
+    protected void backfillPlayerNameLower(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int updated = stmt.executeUpdate("UPDATE " + TABLE_NAME + " SET player_name_lower = LOWER(player_name)" +
+                    " WHERE player_name_lower IS NULL AND player_name IS NOT NULL");
+            if (updated > 0) {
+                plugin.log(Level.INFO, "已为 " + updated + " 条玩家数据回填 player_name_lower");
+            }
         }
     }
 
-    protected abstract void createIndexIfNotExists() throws SQLException;
+    /**
+     * 由月日回填 birthday_doy 列
+     */
+    protected void backfillBirthdayDoy(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int updated = stmt.executeUpdate("UPDATE " + TABLE_NAME + " SET birthday_doy = " + BIRTHDAY_DOY_EXPR +
+                    " WHERE birthday_doy IS NULL AND birthday_month IS NOT NULL AND birthday_day IS NOT NULL");
+            if (updated > 0) {
+                plugin.log(Level.INFO, "已为 " + updated + " 条玩家数据回填 birthday_doy");
+            }
+        }
+    }
 
     @Override
     public CompletableFuture<Void> savePlayerData(PlayerData data) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "INSERT OR REPLACE INTO " + TABLE_NAME + " " +
-                    "(uuid, player_name, birth_year, birthday_month, birthday_day, last_claim_year, " +
-                    "last_claim_date, modify_count_this_year, last_modify_year, " +
-                    "avatar_frame_expiry, created_at, updated_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-            // MySQL使用不同的语法
-            if (getDatabaseType().equals("MySQL")) {
-                sql = "INSERT INTO " + TABLE_NAME + " " +
-                        "(uuid, player_name, birth_year, birthday_month, birthday_day, last_claim_year, " +
-                        "last_claim_date, modify_count_this_year, last_modify_year, " +
-                        "avatar_frame_expiry, created_at, updated_at) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                        "ON DUPLICATE KEY UPDATE " +
-                        "player_name = VALUES(player_name), " +
-                        "birth_year = VALUES(birth_year), " +
-                        "birthday_month = VALUES(birthday_month), " +
-                        "birthday_day = VALUES(birthday_day), " +
-                        "last_claim_year = VALUES(last_claim_year), " +
-                        "last_claim_date = VALUES(last_claim_date), " +
-                        "modify_count_this_year = VALUES(modify_count_this_year), " +
-                        "last_modify_year = VALUES(last_modify_year), " +
-                        "avatar_frame_expiry = VALUES(avatar_frame_expiry), " +
-                        "updated_at = VALUES(updated_at)";
+        return runWriteAsync(() -> {
+            int dirty = data.takeDirtyFields();
+            try (Connection conn = dataSource.getConnection()) {
+                if (!data.isPersisted() || !tryUpdate(conn, data, dirty)) {
+                    try (PreparedStatement stmt = conn.prepareStatement(statements.upsert)) {
+                        bindPlayerData(stmt, data);
+                        stmt.executeUpdate();
+                    }
+                    data.markPersisted();
+                }
+                if (dirty != 0) {
+                    onWritten(data.getUuid());
+                }
+            } catch (SQLException e) {
+                data.markDirty(dirty);
+                plugin.log(Level.SEVERE, "保存玩家数据失败: " + e.getMessage());
+                throw new RuntimeException(e);
             }
+        });
+    }
 
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * 只更新修改过的列，没有修改时直接跳过；行不存在时返回false，由调用方写入整行
+     */
+    private boolean tryUpdate(Connection conn, PlayerData data, int dirty) throws SQLException {
+        if (dirty == 0) {
+            return true;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(statements.update(dirty))) {
+            bindDirtyColumns(stmt, data, dirty);
+            return stmt.executeUpdate() > 0;
+        }
+    }
 
-                stmt.setString(1, data.getUuid().toString());
-                stmt.setString(2, data.getPlayerName());
-
-                if (data.getBirthDate() != null) {
-                    stmt.setInt(3, data.getBirthDate().getYear());
-                    stmt.setInt(4, data.getBirthDate().getMonthValue());
-                    stmt.setInt(5, data.getBirthDate().getDayOfMonth());
-                } else {
-                    stmt.setNull(3, Types.INTEGER);
-                    stmt.setNull(4, Types.INTEGER);
-                    stmt.setNull(5, Types.INTEGER);
-                }
+    @Override
+    public CompletableFuture<Void> savePlayerData(Collection<PlayerData> dataList) {
+        if (dataList.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<PlayerData> rows = new ArrayList<>(dataList);
+        return runWriteAsync(() -> {
+            int[] dirty = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                dirty[i] = rows.get(i).takeDirtyFields();
+            }
 
-                stmt.setInt(6, data.getLastClaimYear());
-                stmt.setDate(7, data.getLastClaimDate() != null ? 
-                        Date.valueOf(data.getLastClaimDate()) : null);
-                stmt.setInt(8, data.getModifyCountThisYear());
-                stmt.setInt(9, data.getLastModifyYear());
-                stmt.setDate(10, data.getAvatarFrameExpiry() != null ? 
-                        Date.valueOf(data.getAvatarFrameExpiry()) : null);
-                stmt.setDate(11, data.getCreatedAt() != null ? 
-                        Date.valueOf(data.getCreatedAt()) : Date.valueOf(LocalDate.now()));
-                stmt.setDate(12, Date.valueOf(LocalDate.now()));
+            try (Connection conn = dataSource.getConnection()) {
+                boolean autoCommit = conn.getAutoCommit();
+                conn.setAutoCommit(false);
+                try {
+                    // 新行写入整行，已有的行按修改的列分组批量更新
+                    List<PlayerData> inserts = new ArrayList<>();
+                    Map<Integer, List<PlayerData>> updates = new HashMap<>();
+                    for (int i = 0; i < rows.size(); i++) {
+                        PlayerData data = rows.get(i);
+                        if (!data.isPersisted()) {
+                            inserts.add(data);
+                        } else if (dirty[i] != 0) {
+                            updates.computeIfAbsent(dirty[i], k -> new ArrayList<>()).add(data);
+                        }
+                    }
 
-                stmt.executeUpdate();
+                    for (Map.Entry<Integer, List<PlayerData>> entry : updates.entrySet()) {
+                        List<PlayerData> group = entry.getValue();
+                        try (PreparedStatement stmt = conn.prepareStatement(statements.update(entry.getKey()))) {
+                            for (PlayerData data : group) {
+                                bindDirtyColumns(stmt, data, entry.getKey());
+                                stmt.addBatch();
+                            }
+                            int[] counts = stmt.executeBatch();
+                            for (int i = 0; i < counts.length; i++) {
+                                if (counts[i] == 0) {
+                                    inserts.add(group.get(i));
+                                }
+                            }
+                        }
+                    }
+
+                    if (!inserts.isEmpty()) {
+                        try (PreparedStatement stmt = conn.prepareStatement(statements.upsert)) {
+                            for (PlayerData data : inserts) {
+                                bindPlayerData(stmt, data);
+                                stmt.addBatch();
+                            }
+                            stmt.executeBatch();
+                        }
+                    }
+                    conn.commit();
+                    for (PlayerData data : inserts) {
+                        data.markPersisted();
+                        onWritten(data.getUuid());
+                    }
+                    updates.values().forEach(group -> group.forEach(data -> onWritten(data.getUuid())));
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(autoCommit);
+                }
             } catch (SQLException e) {
-                plugin.log(Level.SEVERE, "保存玩家数据失败: " + e.getMessage());
+                for (int i = 0; i < rows.size(); i++) {
+                    rows.get(i).markDirty(dirty[i]);
+                }
+                plugin.log(Level.SEVERE, "批量保存玩家数据失败 (" + rows.size() + " 条): " + e.getMessage());
                 throw new RuntimeException(e);
             }
         });
     }
 
+    protected void bindPlayerData(PreparedStatement stmt, PlayerData data) throws SQLException {
+        uuidStorage.bind(stmt, COL_UUID, data.getUuid());
+        stmt.setString(2, data.getPlayerName());
+        stmt.setString(COL_PLAYER_NAME_LOWER, lowerName(data.getPlayerName()));
+        bindBirthday(stmt, COL_BIRTH_YEAR, COL_BIRTHDAY_DOY, data.getBirthDate());
+
+        LocalDate today = LocalDate.now();
+        stmt.setInt(6, data.getLastClaimYear());
+        dialect.writeDate(stmt, 7, data.getLastClaimDate());
+        stmt.setInt(8, data.getModifyCountThisYear());
+        stmt.setInt(9, data.getLastModifyYear());
+        dialect.writeDate(stmt, 10, data.getAvatarFrameExpiry());
+        dialect.writeDate(stmt, 11, data.getCreatedAt() != null ? data.getCreatedAt() : today);
+        dialect.writeDate(stmt, 12, today);
+        stmt.setInt(COL_TOTAL_CLAIM_COUNT, data.getTotalClaimCount());
+        dialect.writeDate(stmt, COL_FIRST_CLAIM_DATE, data.getFirstClaimDate());
+    }
+
+    private static String lowerName(String playerName) {
+        return playerName != null ? playerName.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * 绑定出生年月日三列（从 index 开始连续）以及 birthday_doy 列
+     */
+    private void bindBirthday(PreparedStatement stmt, int index, int doyIndex, LocalDate birthDate) throws SQLException {
+        if (birthDate != null) {
+            stmt.setInt(index, birthDate.getYear());
+            stmt.setInt(index + 1, birthDate.getMonthValue());
+            stmt.setInt(index + 2, birthDate.getDayOfMonth());
+            stmt.setInt(doyIndex, DateUtil.toLeapDayOfYear(birthDate.getMonthValue(), birthDate.getDayOfMonth()));
+        } else {
+            stmt.setNull(index, Types.INTEGER);
+            stmt.setNull(index + 1, Types.INTEGER);
+            stmt.setNull(index + 2, Types.INTEGER);
+            stmt.setNull(doyIndex, Types.SMALLINT);
+        }
+    }
+
+    /**
+     * 按 {@link PlayerStatements#DIRTY_COLUMNS} 的顺序绑定修改过的列，最后是 updated_at 和 uuid
+     */
+    protected void bindDirtyColumns(PreparedStatement stmt, PlayerData data, int dirty) throws SQLException {
+        int index = 1;
+        if ((dirty & PlayerData.DIRTY_NAME) != 0) {
+            stmt.setString(index++, data.getPlayerName());
+            stmt.setString(index++, lowerName(data.getPlayerName()));
+        }
+        if ((dirty & PlayerData.DIRTY_BIRTHDAY) != 0) {
+            bindBirthday(stmt, index, index + 3, data.getBirthDate());
+            index += 4;
+        }
+        if ((dirty & PlayerData.DIRTY_CLAIM) != 0) {
+            stmt.setInt(index++, data.getLastClaimYear());
+            dialect.writeDate(stmt, index++, data.getLastClaimDate());
+            stmt.setInt(index++, data.getTotalClaimCount());
+            dialect.writeDate(stmt, index++, data.getFirstClaimDate());
+        }
+        if ((dirty & PlayerData.DIRTY_MODIFY) != 0) {
+            stmt.setInt(index++, data.getModifyCountThisYear());
+            stmt.setInt(index++, data.getLastModifyYear());
+        }
+        if ((dirty & PlayerData.DIRTY_AVATAR_FRAME) != 0) {
+            dialect.writeDate(stmt, index++, data.getAvatarFrameExpiry());
+        }
+        dialect.writeDate(stmt, index++, LocalDate.now());
+        uuidStorage.bind(stmt, index, data.getUuid());
+    }
+
     @Override
     public CompletableFuture<PlayerData> getPlayerData(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM " + TABLE_NAME + " WHERE uuid = ?";
+        return supplyAsync(() -> {
+            try (Connection conn = getReadDataSource(uuid).getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(statements.selectByUuid)) {
 
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, uuid.toString());
+                uuidStorage.bind(stmt, 1, uuid);
 
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
@@ -167,15 +717,75 @@ public abstract class AbstractDatabase implements Database {
     }
 
     @Override
-    public CompletableFuture<Void> deletePlayerData(UUID uuid) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM " + TABLE_NAME + " WHERE uuid = ?";
+    public CompletableFuture<Map<UUID, PlayerData>> getPlayerData(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
 
+        List<UUID> keys = new ArrayList<>(uuids);
+        return supplyAsync(() -> {
+            Map<UUID, PlayerData> result = new HashMap<>();
+            HikariDataSource source = keys.stream().anyMatch(this::readsFromPrimary)
+                    ? dataSource
+                    : getReadDataSource();
+
+            try (Connection conn = source.getConnection()) {
+                // 分块查询，避免超出数据库的参数数量限制
+                for (int from = 0; from < keys.size(); from += IN_QUERY_CHUNK_SIZE) {
+                    List<UUID> chunk = keys.subList(from, Math.min(from + IN_QUERY_CHUNK_SIZE, keys.size()));
+                    try (PreparedStatement stmt = conn.prepareStatement(statements.selectByUuids(chunk.size()))) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            uuidStorage.bind(stmt, i + 1, chunk.get(i));
+                        }
+
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                PlayerData data = parsePlayerData(rs);
+                                result.put(data.getUuid(), data);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.log(Level.SEVERE, "批量获取玩家数据失败: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<PlayerData> findByName(String playerName) {
+        return supplyAsync(() -> {
+            try (Connection conn = getReadDataSource().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(statements.selectByName)) {
+
+                stmt.setString(1, lowerName(playerName));
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return parsePlayerData(rs);
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.log(Level.SEVERE, "按名字查找玩家数据失败: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deletePlayerData(UUID uuid) {
+        return runWriteAsync(() -> {
             try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                 PreparedStatement stmt = conn.prepareStatement(statements.delete)) {
 
-                stmt.setString(1, uuid.toString());
+                uuidStorage.bind(stmt, 1, uuid);
                 stmt.executeUpdate();
+                onWritten(uuid);
             } catch (SQLException e) {
                 plugin.log(Level.SEVERE, "删除玩家数据失败: " + e.getMessage());
                 throw new RuntimeException(e);
@@ -191,13 +801,10 @@ public abstract class AbstractDatabase implements Database {
 
     @Override
     public CompletableFuture<List<PlayerData>> getBirthdayPlayers(int month, int day) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync(() -> {
             List<PlayerData> players = new ArrayList<>();
-            String sql = "SELECT * FROM " + TABLE_NAME + 
-                    " WHERE birthday_month = ? AND birthday_day = ?";
-
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = getReadDataSource().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(statements.selectByBirthday)) {
 
                 stmt.setInt(1, month);
                 stmt.setInt(2, day);
@@ -218,13 +825,11 @@ public abstract class AbstractDatabase implements Database {
 
     @Override
     public CompletableFuture<Boolean> playerDataExists(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT 1 FROM " + TABLE_NAME + " WHERE uuid = ?";
-
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return supplyAsync(() -> {
+            try (Connection conn = getReadDataSource(uuid).getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(statements.exists)) {
 
-                stmt.setString(1, uuid.toString());
+                uuidStorage.bind(stmt, 1, uuid);
 
                 try (ResultSet rs = stmt.executeQuery()) {
                     return rs.next();
@@ -236,24 +841,77 @@ public abstract class AbstractDatabase implements Database {
         });
     }
 
+    @Override
+    public CompletableFuture<Boolean> tryClaim(UUID uuid, int year) {
+        return supplyWriteAsync(() -> {
+            LocalDate today = LocalDate.now();
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(statements.claim)) {
+
+                stmt.setInt(1, year);
+                dialect.writeDate(stmt, 2, today);
+                dialect.writeDate(stmt, 3, today);
+                dialect.writeDate(stmt, 4, today);
+                uuidStorage.bind(stmt, 5, uuid);
+                stmt.setInt(6, year);
+                boolean claimed = stmt.executeUpdate() > 0;
+                if (claimed) {
+                    onWritten(uuid);
+                    claimHistory.append(uuid, year);
+                }
+                return claimed;
+            } catch (SQLException e) {
+                plugin.log(Level.SEVERE, "领取生日福利失败: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
     @Override
     public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days) {
-        return CompletableFuture.supplyAsync(() -> {
+        return getUpcomingBirthdays(days, 0);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days, int limit) {
+        if (days < 1) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        int startDoy = DateUtil.toLeapDayOfYear(tomorrow.getMonthValue(), tomorrow.getDayOfMonth());
+        int[] range = DateUtil.getUpcomingDayOfYearRange(LocalDate.now(), days);
+
+        int rangeKind;
+        if (range == null) {
+            rangeKind = PlayerStatements.RANGE_ALL;
+        } else if (range[0] <= range[1]) {
+            rangeKind = PlayerStatements.RANGE_BETWEEN;
+        } else {
+            rangeKind = PlayerStatements.RANGE_WRAPPED;
+        }
+        String sql = statements.upcoming(rangeKind, limit > 0);
+
+        return supplyAsync(() -> {
             List<PlayerData> players = new ArrayList<>();
-            String sql = "SELECT * FROM " + TABLE_NAME + " WHERE birthday_month IS NOT NULL AND birthday_day IS NOT NULL";
 
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql);
-                 ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = getReadDataSource().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-                LocalDate today = LocalDate.now();
-                while (rs.next()) {
-                    PlayerData data = parsePlayerData(rs);
-                    if (data.hasBirthdaySet()) {
-                        long daysUntil = data.getDaysUntilBirthday();
-                        if (daysUntil >= 0 && daysUntil <= days) {
-                            players.add(data);
-                        }
+                int index = 1;
+                if (range != null) {
+                    stmt.setInt(index++, range[0]);
+                    stmt.setInt(index++, range[1]);
+                }
+                stmt.setInt(index++, startDoy);
+                if (limit > 0) {
+                    stmt.setInt(index, limit);
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        players.add(parsePlayerData(rs));
                     }
                 }
             } catch (SQLException e) {
@@ -261,27 +919,61 @@ public abstract class AbstractDatabase implements Database {
                 throw new RuntimeException(e);
             }
 
-            // 按距离生日天数排序
-            players.sort((a, b) -> Long.compare(a.getDaysUntilBirthday(), b.getDaysUntilBirthday()));
             return players;
         });
     }
 
     @Override
     public CompletableFuture<List<PlayerData>> getAllPlayersWithBirthday() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<PlayerData> players = new ArrayList<>();
-            String sql = "SELECT * FROM " + TABLE_NAME + " WHERE birthday_month IS NOT NULL AND birthday_day IS NOT NULL";
+        List<PlayerData> players = new ArrayList<>();
+        return streamPlayers(true, players::add).thenApply(count -> players);
+    }
 
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql);
+    @Override
+    public CompletableFuture<Long> streamPlayers(boolean birthdaySetOnly, Consumer<PlayerData> consumer) {
+        return supplyAsync(() -> {
+            String sql = birthdaySetOnly ? statements.selectAllWithBirthday : statements.selectAll;
+            long count = 0;
+
+            try (Connection conn = getReadDataSource().getConnection();
+                 PreparedStatement stmt = prepareStreamingStatement(conn, sql);
                  ResultSet rs = stmt.executeQuery()) {
 
                 while (rs.next()) {
-                    players.add(parsePlayerData(rs));
+                    consumer.accept(parsePlayerData(rs));
+                    count++;
+                }
+            } catch (SQLException e) {
+                plugin.log(Level.SEVERE, "遍历玩家数据失败: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+
+            return count;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersAfter(UUID afterKey, int limit) {
+        return supplyAsync(() -> {
+            List<PlayerData> players = new ArrayList<>();
+            String sql = afterKey == null ? statements.selectFirstPage : statements.selectPageAfter;
+
+            try (Connection conn = getReadDataSource().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                if (afterKey != null) {
+                    uuidStorage.bind(stmt, index++, afterKey);
+                }
+                stmt.setInt(index, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        players.add(parsePlayerData(rs));
+                    }
                 }
             } catch (SQLException e) {
-                plugin.log(Level.SEVERE, "获取所有玩家生日数据失败: " + e.getMessage());
+                plugin.log(Level.SEVERE, "分页读取玩家数据失败: " + e.getMessage());
                 throw new RuntimeException(e);
             }
 
@@ -289,51 +981,157 @@ public abstract class AbstractDatabase implements Database {
         });
     }
 
-    protected PlayerData parsePlayerData(ResultSet rs) throws SQLException {
-        UUID uuid = UUID.fromString(rs.getString("uuid"));
-        String playerName = rs.getString("player_name");
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersPage(PlayerData after, int limit, PlayerSortOrder sortOrder) {
+        return supplyAsync(() -> {
+            List<PlayerData> players = new ArrayList<>();
 
-        LocalDate birthDate = null;
-        int year = rs.getInt("birth_year");
-        boolean hasYear = !rs.wasNull() && year > 0;
-        int month = rs.getInt("birthday_month");
-        int day = rs.getInt("birthday_day");
-        if (!rs.wasNull() && month > 0 && day > 0) {
-            // 如果没有年份，默认使用2000年
-            int birthYear = hasYear ? year : 2000;
-            birthDate = LocalDate.of(birthYear, month, day);
-        }
+            try (Connection conn = getReadDataSource().getConnection()) {
+                if (sortOrder == PlayerSortOrder.NEXT_BIRTHDAY) {
+                    readNextBirthdayPage(conn, after, limit, players);
+                    return players;
+                }
 
-        int lastClaimYear = rs.getInt("last_claim_year");
-        
-        LocalDate lastClaimDate = null;
-        Date lastClaimDateSql = rs.getDate("last_claim_date");
-        if (lastClaimDateSql != null) {
-            lastClaimDate = lastClaimDateSql.toLocalDate();
-        }
+                try (PreparedStatement stmt = conn.prepareStatement(statements.page(sortOrder, after == null))) {
+                    int index = 1;
+                    if (after != null) {
+                        if (sortOrder == PlayerSortOrder.NAME) {
+                            stmt.setString(index++, after.getPlayerName());
+                            stmt.setString(index++, after.getPlayerName());
+                        } else {
+                            dialect.writeDate(stmt, index++, after.getLastClaimDate());
+                            dialect.writeDate(stmt, index++, after.getLastClaimDate());
+                        }
+                        uuidStorage.bind(stmt, index++, after.getUuid());
+                    }
+                    stmt.setInt(index, limit);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            players.add(parsePlayerData(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.log(Level.SEVERE, "分页获取玩家列表失败: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+
+            return players;
+        });
+    }
 
-        int modifyCountThisYear = rs.getInt("modify_count_this_year");
-        int lastModifyYear = rs.getInt("last_modify_year");
+    /**
+     * 按下次生日排序时先读 [明天, 年底]，不满一页再从年初继续读到今天
+     */
+    private void readNextBirthdayPage(Connection conn, PlayerData after, int limit, List<PlayerData> players)
+            throws SQLException {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        int startDoy = DateUtil.toLeapDayOfYear(tomorrow.getMonthValue(), tomorrow.getDayOfMonth());
+        int[][] segments = {{startDoy, 366}, {1, startDoy - 1}};
 
-        LocalDate avatarFrameExpiry = null;
-        Date avatarExpiryDateSql = rs.getDate("avatar_frame_expiry");
-        if (avatarExpiryDateSql != null) {
-            avatarFrameExpiry = avatarExpiryDateSql.toLocalDate();
+        int afterDoy = 0;
+        int firstSegment = 0;
+        if (after != null) {
+            MonthDay birthday = after.getBirthdayMonthDay();
+            afterDoy = DateUtil.toLeapDayOfYear(birthday.getMonthValue(), birthday.getDayOfMonth());
+            firstSegment = afterDoy >= startDoy ? 0 : 1;
         }
 
-        LocalDate createdAt = null;
-        Date createdAtSql = rs.getDate("created_at");
-        if (createdAtSql != null) {
-            createdAt = createdAtSql.toLocalDate();
+        for (int segment = firstSegment; segment < segments.length && players.size() < limit; segment++) {
+            boolean fromCursor = after != null && segment == firstSegment;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    statements.page(PlayerSortOrder.NEXT_BIRTHDAY, !fromCursor))) {
+                int index = 1;
+                stmt.setInt(index++, segments[segment][0]);
+                stmt.setInt(index++, segments[segment][1]);
+                if (fromCursor) {
+                    stmt.setInt(index++, afterDoy);
+                    stmt.setInt(index++, afterDoy);
+                    uuidStorage.bind(stmt, index++, after.getUuid());
+                }
+                stmt.setInt(index, limit - players.size());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        players.add(parsePlayerData(rs));
+                    }
+                }
+            }
         }
+    }
+
+    @Override
+    public CompletableFuture<PlayerStatistics> getStatistics() {
+        return supplyAsync(() -> {
+            LocalDate today = LocalDate.now();
+            long[] perMonth = new long[12];
+
+            try (Connection conn = getReadDataSource().getConnection()) {
+                try (PreparedStatement stmt = conn.prepareStatement(statements.countByMonth);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int month = rs.getInt(1);
+                        if (month >= 1 && month <= 12) {
+                            perMonth[month - 1] = rs.getLong(2);
+                        }
+                    }
+                }
 
-        LocalDate updatedAt = null;
-        Date updatedAtSql = rs.getDate("updated_at");
-        if (updatedAtSql != null) {
-            updatedAt = updatedAtSql.toLocalDate();
+                try (PreparedStatement stmt = conn.prepareStatement(statements.summary)) {
+                    stmt.setInt(1, today.getYear());
+                    dialect.writeDate(stmt, 2, today);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        // 空表时 SUM 为 NULL，getLong 返回 0
+                        return new PlayerStatistics(rs.getLong(1), rs.getLong(2), perMonth,
+                                rs.getLong(3), rs.getLong(4));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.log(Level.SEVERE, "统计玩家数据失败: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * 创建用于全表遍历的只读语句，按配置的fetch size分批从数据库拉取数据
+     */
+    protected PreparedStatement prepareStreamingStatement(Connection conn, String sql) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(plugin.getConfigManager().getDatabaseFetchSize());
+        return stmt;
+    }
+
+    /**
+     * 按固定列顺序（见 {@link #COLUMNS}）解析一行玩家数据
+     */
+    protected PlayerData parsePlayerData(ResultSet rs) throws SQLException {
+        UUID uuid = uuidStorage.read(rs, COL_UUID);
+        String playerName = rs.getString(COL_PLAYER_NAME);
+
+        LocalDate birthDate = null;
+        int year = rs.getInt(COL_BIRTH_YEAR);
+        boolean hasYear = !rs.wasNull() && year > 0;
+        int month = rs.getInt(COL_BIRTHDAY_MONTH);
+        int day = rs.getInt(COL_BIRTHDAY_DAY);
+        if (!rs.wasNull() && month > 0 && day > 0) {
+            // 如果没有年份，默认使用2000年
+            int birthYear = hasYear ? year : 2000;
+            birthDate = LocalDate.of(birthYear, month, day);
         }
 
-        return new PlayerData(uuid, playerName, birthDate, lastClaimYear, lastClaimDate,
-                modifyCountThisYear, lastModifyYear, avatarFrameExpiry, createdAt, updatedAt);
+        return new PlayerData(uuid, playerName, birthDate,
+                rs.getInt(COL_LAST_CLAIM_YEAR),
+                dialect.readDate(rs, COL_LAST_CLAIM_DATE),
+                rs.getInt(COL_MODIFY_COUNT_THIS_YEAR),
+                rs.getInt(COL_LAST_MODIFY_YEAR),
+                dialect.readDate(rs, COL_AVATAR_FRAME_EXPIRY),
+                rs.getInt(COL_TOTAL_CLAIM_COUNT),
+                dialect.readDate(rs, COL_FIRST_CLAIM_DATE),
+                dialect.readDate(rs, COL_CREATED_AT),
+                dialect.readDate(rs, COL_UPDATED_AT));
     }
 }
@@ -0,0 +1,165 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * 领取记录的异步批量写入器
+ * 领取成功后只把记录放入内存队列，定时或积累满一批时在写入线程池中批量插入 birthday_claims 表
+ * 领取次数以玩家行上的计数为准，这里写入失败只会放回队列等待下次重试
+ */
+final class ClaimHistoryAppender {
+
+    // 数据库持续不可用时队列的上限，超出后丢弃最早的记录
+    private static final int MAX_PENDING = 10000;
+    private static final int MAX_SERVER_ID_LENGTH = 64;
+
+    private final PlayerBirthdayPerks plugin;
+    private final DataSource dataSource;
+    private final DatabaseExecutor writeExecutor;
+    private final String insertSql;
+    private final String serverId;
+    private final int batchSize;
+
+    private final ConcurrentLinkedQueue<ClaimRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private BukkitTask flushTask;
+
+    ClaimHistoryAppender(PlayerBirthdayPerks plugin, DataSource dataSource, DatabaseExecutor writeExecutor,
+                         String insertSql) {
+        this.plugin = plugin;
+        this.dataSource = dataSource;
+        this.writeExecutor = writeExecutor;
+        this.insertSql = insertSql;
+        String id = plugin.getConfigManager().getServerId();
+        this.serverId = id.length() > MAX_SERVER_ID_LENGTH ? id.substring(0, MAX_SERVER_ID_LENGTH) : id;
+        this.batchSize = Math.max(1, plugin.getConfigManager().getClaimHistoryBatchSize());
+    }
+
+    void start() {
+        long intervalTicks = Math.max(1, plugin.getConfigManager().getClaimHistoryFlushInterval() / 50);
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin,
+                this::scheduleFlush, intervalTicks, intervalTicks);
+    }
+
+    void append(UUID uuid, int year) {
+        pending.add(new ClaimRecord(uuid, year, System.currentTimeMillis(), serverId));
+        if (pendingCount.incrementAndGet() >= batchSize) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * 停止定时写入，并在当前线程写入队列中剩余的记录（关闭数据库前调用）
+     */
+    void close() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+        int lost = pendingCount.get();
+        if (lost > 0) {
+            plugin.log(Level.WARNING, "关闭时有 " + lost + " 条领取记录未能写入");
+        }
+    }
+
+    private void scheduleFlush() {
+        if (pendingCount.get() == 0 || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 写入线程池已满，下次定时任务再试
+            flushScheduled.set(false);
+            plugin.debug("写入线程池繁忙，领取记录稍后写入");
+        }
+    }
+
+    /**
+     * 分批写入队列中的全部记录，某一批写入失败时放回队列并停止本次写入
+     */
+    private void flush() {
+        List<ClaimRecord> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            ClaimRecord record;
+            while (batch.size() < batchSize && (record = pending.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingCount.addAndGet(-batch.size());
+
+            try {
+                write(batch);
+            } catch (SQLException e) {
+                plugin.log(Level.WARNING, "写入领取记录失败 (" + batch.size() + " 条)，稍后重试: " + e.getMessage());
+                requeue(batch);
+                return;
+            }
+        }
+    }
+
+    private void write(List<ClaimRecord> batch) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (ClaimRecord record : batch) {
+                    stmt.setString(1, record.uuid.toString());
+                    stmt.setInt(2, record.year);
+                    stmt.setLong(3, record.claimedAt);
+                    stmt.setString(4, record.serverId);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        plugin.debug("已写入 " + batch.size() + " 条领取记录");
+    }
+
+    private void requeue(List<ClaimRecord> batch) {
+        pending.addAll(batch);
+        pendingCount.addAndGet(batch.size());
+
+        int dropped = 0;
+        while (pendingCount.get() > MAX_PENDING && pending.poll() != null) {
+            pendingCount.decrementAndGet();
+            dropped++;
+        }
+        if (dropped > 0) {
+            plugin.log(Level.WARNING, "待写入的领取记录过多，已丢弃最早的 " + dropped + " 条");
+        }
+    }
+}
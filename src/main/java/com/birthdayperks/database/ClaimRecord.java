@@ -0,0 +1,36 @@
+package com.birthdayperks.database;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * 一条领取记录，对应 birthday_claims 表的一行
+ */
+final class ClaimRecord {
+
+    final UUID uuid;
+    final int year;
+    // 领取时间（毫秒时间戳）
+    final long claimedAt;
+    final String serverId;
+
+    ClaimRecord(UUID uuid, int year, long claimedAt, String serverId) {
+        this.uuid = uuid;
+        this.year = year;
+        this.claimedAt = claimedAt;
+        this.serverId = serverId;
+    }
+
+    byte[] encode() {
+        byte[] server = serverId.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(16 + 4 + 8 + 2 + server.length)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .putInt(year)
+                .putLong(claimedAt)
+                .putShort((short) server.length)
+                .put(server)
+                .array();
+    }
+}
@@ -0,0 +1,277 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.manager.PlayerDataManager;
+import com.birthdayperks.model.PlayerData;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * 在两种数据库之间在线迁移玩家数据
+ * 按UUID顺序分页读取源库并批量写入目标库，每批完成后记录进度，中断后再次执行会从上次的位置继续
+ * 全部复制完成后比较两边的行数和校验和
+ * 源库或目标库是当前使用的数据库时，迁移期间暂停本服的保存、领取和删除，否则校验和会不一致；
+ * 共用同一数据库的其他服务器不受控制，需要在迁移期间停止写入
+ */
+public class DataMigrator {
+
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final PlayerBirthdayPerks plugin;
+    private final String from;
+    private final String to;
+    private final int chunkSize;
+    private final BiConsumer<String, Map<String, String>> reporter;
+    private final File resumeFile;
+
+    /**
+     * @param reporter 接收进度消息的键和占位符，在迁移线程中调用
+     */
+    public DataMigrator(PlayerBirthdayPerks plugin, String from, String to,
+                        BiConsumer<String, Map<String, String>> reporter) {
+        this.plugin = plugin;
+        this.from = from.toLowerCase();
+        this.to = to.toLowerCase();
+        this.chunkSize = Math.max(1, plugin.getConfigManager().getMigrationChunkSize());
+        this.reporter = reporter;
+        this.resumeFile = new File(plugin.getDataFolder(), "migrate-" + this.from + "-" + this.to + ".properties");
+    }
+
+    public static boolean isRunning() {
+        return RUNNING.get();
+    }
+
+    /**
+     * 在单独的线程中开始迁移，已有迁移在进行时返回false
+     */
+    public boolean start() {
+        if (!RUNNING.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(this::run, "BirthdayPerks-Migrate");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void run() {
+        Database source = null;
+        Database target = null;
+        PlayerDataManager paused = null;
+        try {
+            source = open(from);
+            target = open(to);
+
+            if (source == plugin.getDatabase() || target == plugin.getDatabase()) {
+                paused = plugin.getPlayerDataManager();
+                paused.pauseWrites().join();
+                reporter.accept("admin.migrate.writes-paused", Map.of());
+            }
+
+            Properties progress = loadProgress();
+            String lastKeyValue = progress.getProperty("last-key");
+            UUID lastKey = lastKeyValue != null ? UUID.fromString(lastKeyValue) : null;
+            long copied = Long.parseLong(progress.getProperty("copied", "0"));
+            if (lastKey != null) {
+                reporter.accept("admin.migrate.resumed", Map.of("from", from, "to", to,
+                        "count", String.valueOf(copied)));
+            } else {
+                reporter.accept("admin.migrate.started", Map.of("from", from, "to", to,
+                        "chunk", String.valueOf(chunkSize)));
+            }
+
+            long start = System.nanoTime();
+            long lastReport = start;
+            long copiedThisRun = 0;
+            while (true) {
+                List<PlayerData> page = source.getPlayersAfter(lastKey, chunkSize).join();
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                // 按完整行写入：目标库中不存在时由保存逻辑回退为插入
+                for (PlayerData data : page) {
+                    data.markDirty(PlayerData.DIRTY_ALL);
+                }
+                target.savePlayerData(page).join();
+
+                lastKey = page.get(page.size() - 1).getUuid();
+                copied += page.size();
+                copiedThisRun += page.size();
+                saveProgress(lastKey, copied);
+
+                long now = System.nanoTime();
+                if ((now - lastReport) / 1_000_000 >= PROGRESS_INTERVAL_MS) {
+                    lastReport = now;
+                    reporter.accept("admin.migrate.progress", Map.of("count", String.valueOf(copied),
+                            "rate", String.valueOf(rate(copiedThisRun, now - start))));
+                }
+                if (page.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            reporter.accept("admin.migrate.verifying", Map.of("count", String.valueOf(copied)));
+            Checksum sourceSum = checksum(source);
+            Checksum targetSum = checksum(target);
+            deleteProgress();
+
+            if (sourceSum.matches(targetSum)) {
+                reporter.accept("admin.migrate.success", Map.of("count", String.valueOf(sourceSum.count),
+                        "checksum", sourceSum.hex(),
+                        "seconds", String.format("%.1f", elapsed / 1_000_000_000.0),
+                        "rate", String.valueOf(rate(copiedThisRun, elapsed))));
+            } else {
+                reporter.accept("admin.migrate.mismatch", Map.of(
+                        "source-count", String.valueOf(sourceSum.count), "source-checksum", sourceSum.hex(),
+                        "target-count", String.valueOf(targetSum.count), "target-checksum", targetSum.hex()));
+            }
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            plugin.log(Level.SEVERE, "数据迁移 " + from + " -> " + to + " 失败: " + cause.getMessage());
+            reporter.accept("admin.migrate.failed", Map.of("error", String.valueOf(cause.getMessage())));
+        } finally {
+            if (paused != null) {
+                paused.resumeWrites();
+            }
+            closeIfOpened(source);
+            closeIfOpened(target);
+            RUNNING.set(false);
+        }
+    }
+
+    /**
+     * 与当前使用的数据库类型相同时直接复用，否则新建并初始化
+     */
+    private Database open(String type) throws Exception {
+        if (isActive(type)) {
+            return plugin.getDatabase();
+        }
+        Database database = DatabaseFactory.createBackend(plugin, type);
+        try {
+            database.initialize();
+        } catch (Exception e) {
+            database.close();
+            throw e;
+        }
+        return database;
+    }
+
+    private void closeIfOpened(Database database) {
+        if (database != null && database != plugin.getDatabase()) {
+            database.close();
+        }
+    }
+
+    private boolean isActive(String type) {
+        return type.equalsIgnoreCase(plugin.getConfigManager().getDatabaseType());
+    }
+
+    private static long rate(long rows, long nanos) {
+        return nanos <= 0 ? rows : rows * 1_000_000_000L / nanos;
+    }
+
+    /**
+     * 统计行数和与顺序无关的校验和（各行哈希值相加），不包含创建和更新时间
+     */
+    private Checksum checksum(Database database) {
+        AtomicLong sum = new AtomicLong();
+        long count = database.streamPlayers(false, data -> sum.addAndGet(hash(data))).join();
+        return new Checksum(count, sum.get());
+    }
+
+    private static long hash(PlayerData data) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, data.getUuid().toString());
+        hash = mix(hash, data.getPlayerName());
+        hash = mix(hash, data.getBirthDate());
+        hash = mix(hash, String.valueOf(data.getLastClaimYear()));
+        hash = mix(hash, data.getLastClaimDate());
+        hash = mix(hash, String.valueOf(data.getModifyCountThisYear()));
+        hash = mix(hash, String.valueOf(data.getLastModifyYear()));
+        hash = mix(hash, data.getAvatarFrameExpiry());
+        hash = mix(hash, String.valueOf(data.getTotalClaimCount()));
+        hash = mix(hash, data.getFirstClaimDate());
+        return hash;
+    }
+
+    private static long mix(long hash, LocalDate date) {
+        return mix(hash, date != null ? date.toString() : null);
+    }
+
+    private static long mix(long hash, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        // 字段分隔符，区分 null 和空字符串
+        hash ^= value != null ? 0x1f : 0x1e;
+        return hash * FNV_PRIME;
+    }
+
+    private Properties loadProgress() throws IOException {
+        Properties properties = new Properties();
+        if (resumeFile.exists()) {
+            try (InputStream in = Files.newInputStream(resumeFile.toPath())) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    private void saveProgress(UUID lastKey, long copied) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("last-key", lastKey.toString());
+        properties.setProperty("copied", String.valueOf(copied));
+
+        File temp = new File(resumeFile.getParentFile(), resumeFile.getName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+            properties.store(out, "PlayerBirthdayPerks migration " + from + " -> " + to);
+        }
+        Files.move(temp.toPath(), resumeFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteProgress() throws IOException {
+        Files.deleteIfExists(resumeFile.toPath());
+    }
+
+    private static class Checksum {
+        private final long count;
+        private final long sum;
+
+        Checksum(long count, long sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+
+        boolean matches(Checksum other) {
+            return count == other.count && sum == other.sum;
+        }
+
+        String hex() {
+            return String.format("%016x", sum);
+        }
+    }
+}
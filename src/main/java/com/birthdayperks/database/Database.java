@@ -1,10 +1,15 @@
 package com.birthdayperks.database;
 
 import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.model.PlayerStatistics;
+import com.zaxxer.hikari.HikariDataSource;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface Database {
 
@@ -23,11 +28,21 @@ public interface Database {
      */
     CompletableFuture<Void> savePlayerData(PlayerData data);
 
+    /**
+     * 批量保存玩家数据（单个事务/批处理）
+     */
+    CompletableFuture<Void> savePlayerData(Collection<PlayerData> dataList);
+
     /**
      * 获取玩家数据
      */
     CompletableFuture<PlayerData> getPlayerData(UUID uuid);
 
+    /**
+     * 批量获取玩家数据，不存在的玩家不会出现在结果中
+     */
+    CompletableFuture<Map<UUID, PlayerData>> getPlayerData(Collection<UUID> uuids);
+
     /**
      * 删除玩家数据
      */
@@ -48,6 +63,21 @@ public interface Database {
      */
     CompletableFuture<Boolean> playerDataExists(UUID uuid);
 
+    /**
+     * 领取指定年份的生日福利，仅当该年份尚未领取时更新，返回是否领取成功
+     */
+    CompletableFuture<Boolean> tryClaim(UUID uuid, int year);
+
+    /**
+     * 获取数据库专用线程池
+     */
+    DatabaseExecutor getExecutor();
+
+    /**
+     * 获取写入线程池，未单独配置时与 {@link #getExecutor()} 相同
+     */
+    DatabaseExecutor getWriteExecutor();
+
     /**
      * 获取数据库类型名称
      */
@@ -58,8 +88,71 @@ public interface Database {
      */
     CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days);
 
+    /**
+     * 获取即将过生日的玩家列表（未来N天内），按距离生日天数排序，最多返回limit条（0为不限制）
+     */
+    CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days, int limit);
+
     /**
      * 获取所有已设置生日的玩家数据
      */
     CompletableFuture<List<PlayerData>> getAllPlayersWithBirthday();
+
+    /**
+     * 流式遍历玩家数据，每读取一行就交给consumer处理（在数据库线程中调用），内存占用与表大小无关
+     *
+     * @param birthdaySetOnly 是否只遍历已设置生日的玩家
+     * @return 遍历的行数
+     */
+    CompletableFuture<Long> streamPlayers(boolean birthdaySetOnly, Consumer<PlayerData> consumer);
+
+    /**
+     * 在数据库中汇总统计玩家数据：每月生日人数、今年领取人数、有效头像框数量和未设置生日的人数
+     */
+    CompletableFuture<PlayerStatistics> getStatistics();
+
+    /**
+     * 按玩家名查找数据（不区分大小写），有多条同名记录时返回最近更新的一条
+     *
+     * @return 找不到时为null
+     */
+    CompletableFuture<PlayerData> findByName(String playerName);
+
+    /**
+     * 按主键顺序分页读取玩家数据
+     *
+     * @param afterKey 上一页最后一个玩家的UUID，null表示从头开始
+     * @param limit    每页最多返回的行数
+     */
+    CompletableFuture<List<PlayerData>> getPlayersAfter(UUID afterKey, int limit);
+
+    /**
+     * 按指定顺序分页读取玩家数据，每页只需一次查询
+     *
+     * @param after     上一页的最后一条数据，null表示第一页
+     * @param limit     每页最多返回的行数
+     * @param sortOrder 排序方式，部分排序方式只包含有对应数据的玩家，见 {@link PlayerSortOrder}
+     */
+    CompletableFuture<List<PlayerData>> getPlayersPage(PlayerData after, int limit, PlayerSortOrder sortOrder);
+
+    /**
+     * 其他服务器修改了该玩家的数据，之后一段时间内从主库读取，避免从库复制延迟读到旧数据
+     * 没有只读从库的实现不需要处理
+     */
+    default void markRemoteWrite(UUID uuid) {
+    }
+
+    /**
+     * 获取使用的连接池，不使用连接池的实现返回空列表
+     */
+    default List<HikariDataSource> getDataSources() {
+        return List.of();
+    }
+
+    /**
+     * 获取耗时统计，未开启统计时返回null
+     */
+    default DatabaseMetrics getMetrics() {
+        return null;
+    }
 }
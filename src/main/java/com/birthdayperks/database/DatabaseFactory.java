@@ -2,14 +2,39 @@ package com.birthdayperks.database;
 
 import com.birthdayperks.PlayerBirthdayPerks;
 
+import java.util.List;
+
 public class DatabaseFactory {
 
+    /**
+     * 支持的数据库类型
+     */
+    public static final List<String> TYPES = List.of("sqlite", "mysql", "h2", "log");
+
     public static Database createDatabase(PlayerBirthdayPerks plugin) {
         String type = plugin.getConfigManager().getDatabaseType().toLowerCase();
 
+        Database database = new InstrumentedDatabase(createBackend(plugin, type));
+        if (plugin.getConfigManager().isCircuitBreakerEnabled()) {
+            // 本地文件数据库出错通常是磁盘问题，写入本地日志无济于事
+            if (type.equals("mysql")) {
+                database = new ResilientDatabase(plugin, database);
+            } else {
+                plugin.getLogger().warning("熔断仅支持 mysql 数据库，当前类型 " + type + " 已忽略该配置");
+            }
+        }
+        return database;
+    }
+
+    /**
+     * 创建指定类型的底层数据库，不包含统计和熔断包装，也不会初始化
+     */
+    public static Database createBackend(PlayerBirthdayPerks plugin, String type) {
         return switch (type) {
             case "mysql" -> new MySQLDatabase(plugin);
             case "sqlite" -> new SQLiteDatabase(plugin);
+            case "h2" -> new H2Database(plugin);
+            case "log" -> new LogDatabase(plugin);
             default -> {
                 plugin.getLogger().warning("未知的数据库类型: " + type + "，使用默认SQLite");
                 yield new SQLiteDatabase(plugin);
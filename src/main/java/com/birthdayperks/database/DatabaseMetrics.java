@@ -0,0 +1,103 @@
+package com.birthdayperks.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数据库操作耗时和连接池状态统计
+ */
+public class DatabaseMetrics {
+
+    private final Map<String, LatencyHistogram> operations = new ConcurrentHashMap<>();
+    private final List<PoolMetrics> pools = new CopyOnWriteArrayList<>();
+
+    /**
+     * 获取某个操作的直方图，不存在时创建
+     */
+    public LatencyHistogram operation(String name) {
+        return operations.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    /**
+     * 按名称排序的所有操作统计
+     */
+    public Map<String, LatencyHistogram> getOperations() {
+        return new TreeMap<>(operations);
+    }
+
+    /**
+     * 开始统计连接池，记录每次获取连接的等待时间
+     */
+    public void attach(HikariDataSource dataSource) {
+        PoolMetrics pool = new PoolMetrics(dataSource);
+        dataSource.setMetricsTrackerFactory((poolName, poolStats) -> pool);
+        pools.add(pool);
+    }
+
+    public List<PoolMetrics> getPools() {
+        return new ArrayList<>(pools);
+    }
+
+    /**
+     * 单个连接池的统计
+     */
+    public static class PoolMetrics implements IMetricsTracker {
+        private final HikariDataSource dataSource;
+        private final LatencyHistogram connectionWait = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+
+        PoolMetrics(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            connectionWait.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        public String getName() {
+            return dataSource.getPoolName();
+        }
+
+        public int getActiveConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+
+        public int getIdleConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getIdleConnections() : 0;
+        }
+
+        public int getPendingThreads() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+        }
+
+        public int getMaxConnections() {
+            return dataSource.getMaximumPoolSize();
+        }
+
+        public LatencyHistogram getConnectionWait() {
+            return connectionWait;
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+    }
+}
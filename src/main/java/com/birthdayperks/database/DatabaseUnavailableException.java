@@ -0,0 +1,11 @@
+package com.birthdayperks.database;
+
+/**
+ * 数据库暂时不可用（熔断中）且无法从缓存或本地写入日志得到结果
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.manager.ConfigManager;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.File;
+
+/**
+ * 嵌入式H2数据库，支持文件和内存两种模式
+ * 以 MySQL 兼容模式运行，可以在没有MySQL服务器的环境下使用与MySQL相同的SQL
+ */
+public class H2Database extends AbstractDatabase {
+
+    public H2Database(PlayerBirthdayPerks plugin) {
+        super(plugin, new H2Dialect());
+    }
+
+    @Override
+    protected HikariDataSource createDataSource() {
+        ConfigManager configManager = plugin.getConfigManager();
+
+        String url;
+        if (configManager.isH2InMemory()) {
+            // 保持内存数据库直到插件关闭，不会因为连接池暂时没有连接而被清空
+            url = "jdbc:h2:mem:birthdayperks;DB_CLOSE_DELAY=-1";
+        } else {
+            File dataFolder = plugin.getDataFolder();
+            if (!dataFolder.exists()) {
+                dataFolder.mkdirs();
+            }
+            url = "jdbc:h2:" + new File(dataFolder, configManager.getH2File()).getAbsolutePath();
+        }
+
+        try {
+            // 驱动由 plugin.yml 的 libraries 提供，选择H2时才加载
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("找不到H2数据库驱动，请检查服务器是否成功下载了 plugin.yml 中的 libraries", e);
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.h2.Driver");
+        config.setJdbcUrl(url + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        config.setMaximumPoolSize(Math.max(1, configManager.getDatabaseExecutorThreads()));
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(30000);
+        config.setPoolName("BirthdayPerks-H2");
+
+        return new HikariDataSource(config);
+    }
+
+    @Override
+    public String getDatabaseType() {
+        return "H2";
+    }
+}
@@ -0,0 +1,27 @@
+package com.birthdayperks.database;
+
+import java.util.List;
+
+/**
+ * H2 以 MySQL 兼容模式运行，插入或更新语句与 MySQL 相同
+ */
+public class H2Dialect extends MySQLDialect {
+
+    /**
+     * H2 没有存储引擎，字符集固定为 Unicode
+     */
+    @Override
+    public String tableOptions() {
+        return "";
+    }
+
+    /**
+     * H2 不支持 RENAME TABLE 语法
+     */
+    @Override
+    public List<String> swapTables(String table, String replacement, String backup) {
+        return List.of(
+                "ALTER TABLE " + table + " RENAME TO " + backup,
+                "ALTER TABLE " + replacement + " RENAME TO " + table);
+    }
+}
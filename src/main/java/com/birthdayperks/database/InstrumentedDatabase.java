@@ -0,0 +1,187 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.model.PlayerStatistics;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 统计每个数据库操作的耗时、错误数和返回行数
+ * 耗时从调用开始计算到Future完成，包含在线程池中排队的时间
+ */
+public class InstrumentedDatabase implements Database {
+
+    private final Database delegate;
+    private final DatabaseMetrics metrics = new DatabaseMetrics();
+
+    public InstrumentedDatabase(Database delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void initialize() throws Exception {
+        long start = System.nanoTime();
+        try {
+            delegate.initialize();
+        } catch (Exception e) {
+            metrics.operation("initialize").recordError();
+            throw e;
+        } finally {
+            metrics.operation("initialize").record(System.nanoTime() - start);
+        }
+        for (HikariDataSource dataSource : delegate.getDataSources()) {
+            metrics.attach(dataSource);
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerData(PlayerData data) {
+        return time("savePlayerData", () -> delegate.savePlayerData(data), result -> 1);
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerData(Collection<PlayerData> dataList) {
+        return time("savePlayerDataBatch", () -> delegate.savePlayerData(dataList), result -> dataList.size());
+    }
+
+    @Override
+    public CompletableFuture<PlayerData> getPlayerData(UUID uuid) {
+        return time("getPlayerData", () -> delegate.getPlayerData(uuid), result -> result != null ? 1 : 0);
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, PlayerData>> getPlayerData(Collection<UUID> uuids) {
+        return time("getPlayerDataBatch", () -> delegate.getPlayerData(uuids), Map::size);
+    }
+
+    @Override
+    public CompletableFuture<PlayerStatistics> getStatistics() {
+        return time("getStatistics", delegate::getStatistics, result -> 1);
+    }
+
+    @Override
+    public CompletableFuture<PlayerData> findByName(String playerName) {
+        return time("findByName", () -> delegate.findByName(playerName), result -> result != null ? 1 : 0);
+    }
+
+    @Override
+    public CompletableFuture<Void> deletePlayerData(UUID uuid) {
+        return time("deletePlayerData", () -> delegate.deletePlayerData(uuid), result -> 0);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getTodayBirthdayPlayers() {
+        return time("getTodayBirthdayPlayers", delegate::getTodayBirthdayPlayers, List::size);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getBirthdayPlayers(int month, int day) {
+        return time("getBirthdayPlayers", () -> delegate.getBirthdayPlayers(month, day), List::size);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> playerDataExists(UUID uuid) {
+        return time("playerDataExists", () -> delegate.playerDataExists(uuid), result -> result ? 1 : 0);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryClaim(UUID uuid, int year) {
+        return time("tryClaim", () -> delegate.tryClaim(uuid, year), result -> result ? 1 : 0);
+    }
+
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return delegate.getExecutor();
+    }
+
+    @Override
+    public DatabaseExecutor getWriteExecutor() {
+        return delegate.getWriteExecutor();
+    }
+
+    @Override
+    public String getDatabaseType() {
+        return delegate.getDatabaseType();
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days) {
+        return time("getUpcomingBirthdays", () -> delegate.getUpcomingBirthdays(days), List::size);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days, int limit) {
+        return time("getUpcomingBirthdays", () -> delegate.getUpcomingBirthdays(days, limit), List::size);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getAllPlayersWithBirthday() {
+        return time("getAllPlayersWithBirthday", delegate::getAllPlayersWithBirthday, List::size);
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPlayers(boolean birthdaySetOnly, Consumer<PlayerData> consumer) {
+        return time("streamPlayers", () -> delegate.streamPlayers(birthdaySetOnly, consumer), Long::longValue);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersAfter(UUID afterKey, int limit) {
+        return time("getPlayersAfter", () -> delegate.getPlayersAfter(afterKey, limit), List::size);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersPage(PlayerData after, int limit, PlayerSortOrder sortOrder) {
+        return time("getPlayersPage", () -> delegate.getPlayersPage(after, limit, sortOrder), List::size);
+    }
+
+    @Override
+    public void markRemoteWrite(UUID uuid) {
+        delegate.markRemoteWrite(uuid);
+    }
+
+    @Override
+    public List<HikariDataSource> getDataSources() {
+        return delegate.getDataSources();
+    }
+
+    @Override
+    public DatabaseMetrics getMetrics() {
+        return metrics;
+    }
+
+    private <T> CompletableFuture<T> time(String operation, Supplier<CompletableFuture<T>> call, ToLongFunction<T> rows) {
+        LatencyHistogram histogram = metrics.operation(operation);
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            histogram.record(System.nanoTime() - start);
+            histogram.recordError();
+            throw e;
+        }
+
+        future.whenComplete((result, error) -> {
+            histogram.record(System.nanoTime() - start);
+            if (error != null) {
+                histogram.recordError();
+            } else {
+                histogram.addRows(rows.applyAsLong(result));
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,633 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.model.PlayerStatistics;
+import com.birthdayperks.util.DateUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * 不依赖JDBC的存储：全部玩家数据保存在内存中，修改以追加日志的形式写入磁盘
+ * 启动时重放日志恢复数据，日志中过期的记录过多时定期压缩
+ * 读取直接访问内存；修改、刷盘和压缩都在同一个写入线程中按顺序执行，调用线程不会等待磁盘
+ */
+public class LogDatabase implements Database {
+
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final byte TYPE_CLAIM = 3;
+    // 日志小于此大小时不压缩
+    private static final int MIN_COMPACT_SIZE = 1024 * 1024;
+
+    private static final Comparator<PlayerData> NAME_ORDER = Comparator
+            .comparing(PlayerData::getPlayerName)
+            .thenComparing(PlayerData::getUuid);
+    private static final Comparator<PlayerData> LAST_CLAIM_ORDER = Comparator
+            .comparing(PlayerData::getLastClaimDate)
+            .thenComparing(PlayerData::getUuid)
+            .reversed();
+
+    private final PlayerBirthdayPerks plugin;
+    private final DatabaseExecutor executor;
+    private final DatabaseExecutor writeExecutor;
+    // 按UUID排序，便于分页遍历
+    private final ConcurrentSkipListMap<UUID, PlayerData> players = new ConcurrentSkipListMap<>();
+    // 生日在闰年中的序号 (1-366) -> 玩家
+    private final List<Set<UUID>> birthdayIndex = new ArrayList<>(367);
+    // 小写玩家名 -> 玩家
+    private final Map<String, Set<UUID>> nameIndex = new ConcurrentHashMap<>();
+    // 有玩家名的数据按 (玩家名, UUID) 排序，有领取日期的数据按 (领取日期, UUID) 倒序，分页时从游标处开始遍历
+    private final ConcurrentSkipListSet<PlayerData> nameOrder = new ConcurrentSkipListSet<>(NAME_ORDER);
+    private final ConcurrentSkipListSet<PlayerData> lastClaimOrder = new ConcurrentSkipListSet<>(LAST_CLAIM_ORDER);
+    // 每个玩家最新一条记录在日志中占用的字节数，用于估算可回收的空间
+    private final Map<UUID, Integer> recordSizes = new HashMap<>();
+    private long liveBytes;
+
+    private RecordLog log;
+    // 领取记录单独追加到另一个日志，不参与压缩
+    private RecordLog claimLog;
+    private BukkitTask maintenanceTask;
+
+    public LogDatabase(PlayerBirthdayPerks plugin) {
+        this.plugin = plugin;
+        // 读取在内存中完成，线程池只用于全表遍历
+        this.executor = new DatabaseExecutor("BirthdayPerks-DB", 1,
+                plugin.getConfigManager().getDatabaseExecutorQueueSize());
+        this.writeExecutor = new DatabaseExecutor("BirthdayPerks-DB-Writer", 1,
+                plugin.getConfigManager().getDatabaseExecutorQueueSize());
+        for (int i = 0; i <= 366; i++) {
+            birthdayIndex.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Override
+    public synchronized void initialize() throws Exception {
+        File dataFolder = plugin.getDataFolder();
+        if (!dataFolder.exists()) {
+            dataFolder.mkdirs();
+        }
+
+        long start = System.currentTimeMillis();
+        log = new RecordLog(new File(dataFolder, plugin.getConfigManager().getLogFile()));
+        int discarded = log.open((type, payload) -> {
+            int size = payload.remaining() + 9;
+            if (type == TYPE_PUT) {
+                apply(PlayerDataCodec.decode(payload), size);
+            } else if (type == TYPE_DELETE) {
+                remove(PlayerDataCodec.decodeUuid(payload));
+            }
+        });
+        if (discarded > 0) {
+            plugin.log(Level.WARNING, "日志末尾有 " + discarded + " 字节不完整的数据，已丢弃");
+        }
+        plugin.log(Level.INFO, "已从日志加载 " + players.size() + " 条玩家数据，耗时 "
+                + (System.currentTimeMillis() - start) + "ms");
+
+        claimLog = new RecordLog(new File(dataFolder, plugin.getConfigManager().getLogClaimsFile()));
+        int discardedClaims = claimLog.open((type, payload) -> {
+        });
+        if (discardedClaims > 0) {
+            plugin.log(Level.WARNING, "领取记录日志末尾有 " + discardedClaims + " 字节不完整的数据，已丢弃");
+        }
+
+        long intervalTicks = Math.max(1, plugin.getConfigManager().getLogSyncInterval() / 50);
+        maintenanceTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin,
+                this::scheduleMaintain, intervalTicks, intervalTicks);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (maintenanceTask != null) {
+            maintenanceTask.cancel();
+            maintenanceTask = null;
+        }
+        if (!writeExecutor.isShutdown()) {
+            writeExecutor.shutdown(0);
+        }
+        if (!executor.isShutdown()) {
+            executor.shutdown(0);
+        }
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                plugin.log(Level.SEVERE, "关闭日志失败: " + e.getMessage());
+            }
+            log = null;
+        }
+        if (claimLog != null) {
+            try {
+                claimLog.close();
+            } catch (IOException e) {
+                plugin.log(Level.SEVERE, "关闭领取记录日志失败: " + e.getMessage());
+            }
+            claimLog = null;
+        }
+    }
+
+    /**
+     * 把刷盘和压缩放到写入线程中，与写入按顺序执行
+     */
+    private void scheduleMaintain() {
+        try {
+            writeExecutor.execute(this::maintain);
+        } catch (RejectedExecutionException e) {
+            plugin.debug("写入线程池繁忙，跳过本次日志维护");
+        }
+    }
+
+    /**
+     * 定期刷盘，过期记录占用超过一半时压缩日志
+     */
+    private synchronized void maintain() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.sync();
+            claimLog.sync();
+        } catch (IOException e) {
+            plugin.log(Level.SEVERE, "日志刷盘失败: " + e.getMessage());
+            return;
+        }
+
+        long size = log.size();
+        if (size < MIN_COMPACT_SIZE || size < liveBytes * 2) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            List<byte[]> snapshot = new ArrayList<>(players.size());
+            for (PlayerData data : players.values()) {
+                snapshot.add(PlayerDataCodec.encode(data));
+            }
+            log.rewrite(TYPE_PUT, snapshot);
+            plugin.debug("日志压缩完成: " + size + " -> " + log.size() + " 字节，耗时 "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException e) {
+            plugin.log(Level.SEVERE, "压缩日志失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerData(PlayerData data) {
+        return supplyWriteAsync(() -> {
+            write(data);
+            return null;
+        }, "保存玩家数据失败");
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerData(Collection<PlayerData> dataList) {
+        return supplyWriteAsync(() -> {
+            for (PlayerData data : dataList) {
+                write(data);
+            }
+            return null;
+        }, "批量保存玩家数据失败 (" + dataList.size() + " 条)");
+    }
+
+    /**
+     * 在写入线程中执行修改，失败时记录日志并返回失败的Future
+     */
+    private <T> CompletableFuture<T> supplyWriteAsync(LogTask<T> task, String failure) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.run();
+                } catch (IOException e) {
+                    plugin.log(Level.SEVERE, failure + ": " + e.getMessage());
+                    throw new UncheckedIOException(e);
+                }
+            }, writeExecutor);
+        } catch (RejectedExecutionException e) {
+            plugin.log(Level.WARNING, "数据库写入任务被拒绝: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private synchronized void write(PlayerData data) throws IOException {
+        int dirty = data.takeDirtyFields();
+        // 没有修改且日志中已有这名玩家时不再追加（例如每次进服时名称未变的保存）
+        if (dirty == 0 && data.isPersisted() && players.containsKey(data.getUuid())) {
+            return;
+        }
+        // 保存副本，调用方之后对对象的修改不会影响索引
+        PlayerData snapshot = data.copy();
+        snapshot.setUpdatedAt(LocalDate.now());
+        if (snapshot.getCreatedAt() == null) {
+            PlayerData existing = players.get(snapshot.getUuid());
+            snapshot = withCreatedAt(snapshot, existing != null ? existing.getCreatedAt() : LocalDate.now());
+        }
+
+        byte[] payload = PlayerDataCodec.encode(snapshot);
+        try {
+            log.append(TYPE_PUT, payload);
+        } catch (IOException e) {
+            data.markDirty(dirty);
+            throw e;
+        }
+        apply(snapshot, payload.length + 9);
+        data.markPersisted();
+    }
+
+    @Override
+    public CompletableFuture<PlayerData> getPlayerData(UUID uuid) {
+        PlayerData data = players.get(uuid);
+        return CompletableFuture.completedFuture(data != null ? data.copy() : null);
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, PlayerData>> getPlayerData(Collection<UUID> uuids) {
+        Map<UUID, PlayerData> result = new HashMap<>();
+        for (UUID uuid : uuids) {
+            PlayerData data = players.get(uuid);
+            if (data != null) {
+                result.put(uuid, data.copy());
+            }
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<Void> deletePlayerData(UUID uuid) {
+        return supplyWriteAsync(() -> {
+            delete(uuid);
+            return null;
+        }, "删除玩家数据失败");
+    }
+
+    private synchronized void delete(UUID uuid) throws IOException {
+        if (players.containsKey(uuid)) {
+            log.append(TYPE_DELETE, PlayerDataCodec.encodeUuid(uuid));
+            remove(uuid);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getTodayBirthdayPlayers() {
+        MonthDay today = MonthDay.now();
+        return getBirthdayPlayers(today.getMonthValue(), today.getDayOfMonth());
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getBirthdayPlayers(int month, int day) {
+        List<PlayerData> result = new ArrayList<>();
+        collect(DateUtil.toLeapDayOfYear(month, day), result, 0);
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> playerDataExists(UUID uuid) {
+        return CompletableFuture.completedFuture(players.containsKey(uuid));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryClaim(UUID uuid, int year) {
+        return supplyWriteAsync(() -> claim(uuid, year), "领取生日福利失败");
+    }
+
+    private synchronized boolean claim(UUID uuid, int year) throws IOException {
+        PlayerData current = players.get(uuid);
+        if (current == null || current.getLastClaimYear() >= year) {
+            return false;
+        }
+
+        PlayerData claimed = current.copy();
+        claimed.markClaimed(year);
+        write(claimed);
+
+        // 领取次数已随玩家数据写入，领取记录写入失败不影响领取结果
+        ClaimRecord record = new ClaimRecord(uuid, year, System.currentTimeMillis(),
+                plugin.getConfigManager().getServerId());
+        try {
+            claimLog.append(TYPE_CLAIM, record.encode());
+        } catch (IOException e) {
+            plugin.log(Level.WARNING, "写入领取记录失败: " + e.getMessage());
+        }
+        return true;
+    }
+
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public DatabaseExecutor getWriteExecutor() {
+        return writeExecutor;
+    }
+
+    @Override
+    public String getDatabaseType() {
+        return "Log";
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days) {
+        return getUpcomingBirthdays(days, 0);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days, int limit) {
+        List<PlayerData> result = new ArrayList<>();
+        if (days < 1) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        int startDoy = DateUtil.toLeapDayOfYear(tomorrow.getMonthValue(), tomorrow.getDayOfMonth());
+        int[] range = DateUtil.getUpcomingDayOfYearRange(LocalDate.now(), days);
+
+        // 从明天开始按日期顺序遍历索引，跨年后从1月1日继续
+        for (int i = 0; i < 366; i++) {
+            int doy = (startDoy - 1 + i) % 366 + 1;
+            if (range != null && !inRange(doy, range)) {
+                continue;
+            }
+            if (!collect(doy, result, limit)) {
+                break;
+            }
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private static boolean inRange(int doy, int[] range) {
+        if (range[0] <= range[1]) {
+            return doy >= range[0] && doy <= range[1];
+        }
+        return doy >= range[0] || doy <= range[1];
+    }
+
+    /**
+     * 把某一天过生日的玩家加入结果
+     *
+     * @return 未达到数量上限时返回true
+     */
+    private boolean collect(int doy, List<PlayerData> result, int limit) {
+        for (UUID uuid : birthdayIndex.get(doy)) {
+            if (limit > 0 && result.size() >= limit) {
+                return false;
+            }
+            PlayerData data = players.get(uuid);
+            if (data != null) {
+                result.add(data.copy());
+            }
+        }
+        return limit <= 0 || result.size() < limit;
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getAllPlayersWithBirthday() {
+        List<PlayerData> result = new ArrayList<>();
+        for (PlayerData data : players.values()) {
+            if (data.hasBirthdaySet()) {
+                result.add(data.copy());
+            }
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPlayers(boolean birthdaySetOnly, Consumer<PlayerData> consumer) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long count = 0;
+                for (PlayerData data : players.values()) {
+                    if (!birthdaySetOnly || data.hasBirthdaySet()) {
+                        consumer.accept(data.copy());
+                        count++;
+                    }
+                }
+                return count;
+            }, executor);
+        } catch (RuntimeException e) {
+            plugin.log(Level.WARNING, "数据库任务被拒绝: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersAfter(UUID afterKey, int limit) {
+        List<PlayerData> result = new ArrayList<>(Math.min(limit, 1024));
+        Map<UUID, PlayerData> page = afterKey == null ? players : players.tailMap(afterKey, false);
+        for (PlayerData data : page.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(data.copy());
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<PlayerStatistics> getStatistics() {
+        int year = LocalDate.now().getYear();
+        long[] perMonth = new long[12];
+        long total = 0;
+        long withoutBirthday = 0;
+        long claims = 0;
+        long frames = 0;
+        for (PlayerData data : players.values()) {
+            total++;
+            if (data.hasBirthdaySet()) {
+                perMonth[data.getBirthDate().getMonthValue() - 1]++;
+            } else {
+                withoutBirthday++;
+            }
+            if (data.getLastClaimYear() == year) {
+                claims++;
+            }
+            if (data.hasValidAvatarFrame()) {
+                frames++;
+            }
+        }
+        return CompletableFuture.completedFuture(new PlayerStatistics(total, withoutBirthday, perMonth, claims, frames));
+    }
+
+    @Override
+    public CompletableFuture<PlayerData> findByName(String playerName) {
+        Set<UUID> uuids = nameIndex.getOrDefault(playerName.toLowerCase(Locale.ROOT), Set.of());
+        // 有多条同名记录时取最近更新的一条
+        PlayerData latest = null;
+        for (UUID uuid : uuids) {
+            PlayerData data = players.get(uuid);
+            if (data != null && (latest == null || isNewer(data, latest))) {
+                latest = data;
+            }
+        }
+        return CompletableFuture.completedFuture(latest != null ? latest.copy() : null);
+    }
+
+    private static boolean isNewer(PlayerData data, PlayerData other) {
+        if (data.getUpdatedAt() == null) {
+            return false;
+        }
+        return other.getUpdatedAt() == null || data.getUpdatedAt().isAfter(other.getUpdatedAt());
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersPage(PlayerData after, int limit, PlayerSortOrder sortOrder) {
+        if (sortOrder == PlayerSortOrder.NEXT_BIRTHDAY) {
+            return CompletableFuture.completedFuture(getNextBirthdayPage(after, limit));
+        }
+
+        ConcurrentSkipListSet<PlayerData> index = sortOrder == PlayerSortOrder.NAME ? nameOrder : lastClaimOrder;
+        Set<PlayerData> page = after != null ? index.tailSet(after, false) : index;
+
+        List<PlayerData> result = new ArrayList<>(Math.min(limit, 1024));
+        for (PlayerData data : page) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(data.copy());
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * 从游标所在的日期开始遍历生日索引，同一天内按UUID排序
+     */
+    private List<PlayerData> getNextBirthdayPage(PlayerData after, int limit) {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        int startDoy = DateUtil.toLeapDayOfYear(tomorrow.getMonthValue(), tomorrow.getDayOfMonth());
+        int afterDoy = after != null ? dayOfYear(after) : startDoy;
+        int offset = (afterDoy - startDoy + 366) % 366;
+
+        List<PlayerData> result = new ArrayList<>(Math.min(limit, 1024));
+        for (int i = offset; i < 366 && result.size() < limit; i++) {
+            int doy = (startDoy - 1 + i) % 366 + 1;
+            List<UUID> uuids = new ArrayList<>(birthdayIndex.get(doy));
+            uuids.sort(null);
+            for (UUID uuid : uuids) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (after != null && doy == afterDoy && uuid.compareTo(after.getUuid()) <= 0) {
+                    continue;
+                }
+                PlayerData data = players.get(uuid);
+                if (data != null) {
+                    result.add(data.copy());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 更新内存中的数据和各个索引，调用方需持有锁（或处于初始化阶段）
+     * 保存的数据是副本，放入索引后不会再被修改
+     */
+    private void apply(PlayerData data, int recordSize) {
+        UUID uuid = data.getUuid();
+        PlayerData previous = players.put(uuid, data);
+        if (previous != null && previous.hasBirthdaySet()) {
+            birthdayIndex.get(dayOfYear(previous)).remove(uuid);
+        }
+        if (previous != null) {
+            unindexOrder(previous);
+        }
+        if (data.getPlayerName() != null) {
+            nameOrder.add(data);
+        }
+        if (data.getLastClaimDate() != null) {
+            lastClaimOrder.add(data);
+        }
+        if (data.hasBirthdaySet()) {
+            birthdayIndex.get(dayOfYear(data)).add(uuid);
+        }
+        String name = nameKey(data);
+        if (previous != null && !Objects.equals(nameKey(previous), name)) {
+            unindexName(previous);
+        }
+        if (name != null) {
+            nameIndex.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet()).add(uuid);
+        }
+
+        Integer previousSize = recordSizes.put(uuid, recordSize);
+        liveBytes += recordSize - (previousSize != null ? previousSize : 0);
+    }
+
+    private void remove(UUID uuid) {
+        PlayerData previous = players.remove(uuid);
+        if (previous != null && previous.hasBirthdaySet()) {
+            birthdayIndex.get(dayOfYear(previous)).remove(uuid);
+        }
+        if (previous != null) {
+            unindexName(previous);
+            unindexOrder(previous);
+        }
+        Integer previousSize = recordSizes.remove(uuid);
+        if (previousSize != null) {
+            liveBytes -= previousSize;
+        }
+    }
+
+    private static String nameKey(PlayerData data) {
+        return data.getPlayerName() != null ? data.getPlayerName().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private void unindexName(PlayerData data) {
+        String name = nameKey(data);
+        if (name == null) {
+            return;
+        }
+        nameIndex.computeIfPresent(name, (key, uuids) -> {
+            uuids.remove(data.getUuid());
+            return uuids.isEmpty() ? null : uuids;
+        });
+    }
+
+    private void unindexOrder(PlayerData data) {
+        if (data.getPlayerName() != null) {
+            nameOrder.remove(data);
+        }
+        if (data.getLastClaimDate() != null) {
+            lastClaimOrder.remove(data);
+        }
+    }
+
+    private static int dayOfYear(PlayerData data) {
+        LocalDate birthDate = data.getBirthDate();
+        return DateUtil.toLeapDayOfYear(birthDate.getMonthValue(), birthDate.getDayOfMonth());
+    }
+
+    private static PlayerData withCreatedAt(PlayerData data, LocalDate createdAt) {
+        return new PlayerData(data.getUuid(), data.getPlayerName(), data.getBirthDate(),
+                data.getLastClaimYear(), data.getLastClaimDate(),
+                data.getModifyCountThisYear(), data.getLastModifyYear(),
+                data.getAvatarFrameExpiry(), data.getTotalClaimCount(), data.getFirstClaimDate(),
+                createdAt, data.getUpdatedAt());
+    }
+
+    @FunctionalInterface
+    private interface LogTask<T> {
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,38 @@
+package com.birthdayperks.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 一个带版本号的数据库结构迁移
+ * 迁移步骤需要是幂等的（可以安全地在已升级过的旧数据库上重复执行）
+ */
+public class Migration {
+
+    private final int version;
+    private final String description;
+    private final Step step;
+
+    public Migration(int version, String description, Step step) {
+        this.version = version;
+        this.description = description;
+        this.step = step;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void apply(Connection conn) throws SQLException {
+        step.apply(conn);
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+}
@@ -5,34 +5,58 @@ import com.birthdayperks.manager.ConfigManager;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 public class MySQLDatabase extends AbstractDatabase {
 
+    private static final int RECENT_WRITES_PRUNE_SIZE = 1024;
+
+    // 玩家UUID -> 该玩家的读取需要走主库的截止时间
+    private final Map<UUID, Long> recentWrites = new ConcurrentHashMap<>();
+    private long readYourWritesWindow;
+
     public MySQLDatabase(PlayerBirthdayPerks plugin) {
-        super(plugin);
+        super(plugin, new MySQLDialect());
     }
 
     @Override
     protected HikariDataSource createDataSource() {
         ConfigManager config = plugin.getConfigManager();
+        String host = config.getMySQLHost() + ":" + config.getMySQLPort();
+        return createPool("jdbc:mysql://" + host, "BirthdayPerks-MySQL", false);
+    }
 
-        String host = config.getMySQLHost();
-        int port = config.getMySQLPort();
-        String database = config.getMySQLDatabase();
-        String username = config.getMySQLUsername();
-        String password = config.getMySQLPassword();
+    /**
+     * 配置了从库时创建只读连接池，多个从库之间由驱动做负载均衡
+     */
+    @Override
+    protected HikariDataSource createReadDataSource() {
+        List<String> replicas = plugin.getConfigManager().getMySQLReplicas();
+        if (replicas.isEmpty()) {
+            return null;
+        }
+
+        String prefix = replicas.size() > 1 ? "jdbc:mysql:loadbalance://" : "jdbc:mysql://";
+        HikariDataSource source = createPool(prefix + String.join(",", replicas), "BirthdayPerks-MySQL-Replica", true);
+        readYourWritesWindow = plugin.getConfigManager().getMySQLReadYourWritesWindow();
+        plugin.log(Level.INFO, "已启用 " + replicas.size() + " 个MySQL从库用于读取");
+        return source;
+    }
+
+    private HikariDataSource createPool(String url, String poolName, boolean readOnly) {
+        ConfigManager config = plugin.getConfigManager();
 
         HikariConfig hikariConfig = new HikariConfig();
         hikariConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        hikariConfig.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database + 
+        hikariConfig.setJdbcUrl(url + "/" + config.getMySQLDatabase() +
                 "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&characterEncoding=UTF-8");
-        hikariConfig.setUsername(username);
-        hikariConfig.setPassword(password);
+        hikariConfig.setUsername(config.getMySQLUsername());
+        hikariConfig.setPassword(config.getMySQLPassword());
+        hikariConfig.setReadOnly(readOnly);
 
         // 连接池配置
         hikariConfig.setMaximumPoolSize(config.getMySQLMaxPoolSize());
@@ -40,7 +64,7 @@ public class MySQLDatabase extends AbstractDatabase {
         hikariConfig.setConnectionTimeout(config.getMySQLConnectionTimeout());
         hikariConfig.setIdleTimeout(config.getMySQLIdleTimeout());
         hikariConfig.setMaxLifetime(config.getMySQLMaxLifetime());
-        hikariConfig.setPoolName("BirthdayPerks-MySQL");
+        hikariConfig.setPoolName(poolName);
 
         // MySQL优化配置
         hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
@@ -53,55 +77,38 @@ public class MySQLDatabase extends AbstractDatabase {
         hikariConfig.addDataSourceProperty("cacheServerConfiguration", "true");
         hikariConfig.addDataSourceProperty("elideSetAutoCommits", "true");
         hikariConfig.addDataSourceProperty("maintainTimeStats", "false");
+        // 设置了fetch size的查询使用服务端游标分批读取，全表遍历时内存占用保持平稳
+        hikariConfig.addDataSourceProperty("useCursorFetch", "true");
 
         return new HikariDataSource(hikariConfig);
     }
 
+    /**
+     * 玩家写入后的一段时间内从主库读取，避免从库复制延迟导致读到旧数据
+     */
     @Override
-    protected void createTables() throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
-                "uuid VARCHAR(36) PRIMARY KEY, " +
-                "player_name VARCHAR(16), " +
-                "birthday_month TINYINT, " +
-                "birthday_day TINYINT, " +
-                "last_claim_year SMALLINT DEFAULT 0, " +
-                "last_claim_date DATE, " +
-                "modify_count_this_year TINYINT DEFAULT 0, " +
-                "last_modify_year SMALLINT DEFAULT 0, " +
-                "avatar_frame_expiry DATE, " +
-                "created_at DATE, " +
-                "updated_at DATE, " +
-                "INDEX idx_birthday (birthday_month, birthday_day)" +
-                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci";
-
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+    protected boolean readsFromPrimary(UUID uuid) {
+        Long until = recentWrites.get(uuid);
+        if (until == null) {
+            return false;
         }
+        if (until > System.currentTimeMillis()) {
+            return true;
+        }
+        recentWrites.remove(uuid, until);
+        return false;
     }
 
     @Override
-    protected void createIndexIfNotExists() throws SQLException {
-        // MySQL在创建表时已经创建了索引，这里检查并添加（如果不存在）
-        try (Connection conn = dataSource.getConnection()) {
-            DatabaseMetaData meta = conn.getMetaData();
-            try (ResultSet rs = meta.getIndexInfo(null, null, TABLE_NAME, false, false)) {
-                boolean hasIndex = false;
-                while (rs.next()) {
-                    String indexName = rs.getString("INDEX_NAME");
-                    if ("idx_birthday".equals(indexName)) {
-                        hasIndex = true;
-                        break;
-                    }
-                }
-                
-                if (!hasIndex) {
-                    try (Statement stmt = conn.createStatement()) {
-                        stmt.execute("CREATE INDEX idx_birthday ON " + TABLE_NAME + 
-                                " (birthday_month, birthday_day)");
-                    }
-                }
-            }
+    protected void onWritten(UUID uuid) {
+        if (readDataSource == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        recentWrites.put(uuid, now + readYourWritesWindow);
+        // 清理之后没有再读取的玩家
+        if (recentWrites.size() > RECENT_WRITES_PRUNE_SIZE) {
+            recentWrites.values().removeIf(until -> until <= now);
         }
     }
 
@@ -0,0 +1,40 @@
+package com.birthdayperks.database;
+
+import java.util.List;
+
+public class MySQLDialect extends SqlDialect {
+
+    @Override
+    public String upsert(String table, String columns, String keyColumn, List<String> updateColumns) {
+        StringBuilder sb = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(columns).append(") VALUES (")
+                .append(placeholders(columnCount(columns)))
+                .append(") ON DUPLICATE KEY UPDATE ");
+        for (int i = 0; i < updateColumns.size(); i++) {
+            String column = updateColumns.get(i);
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(column).append(" = VALUES(").append(column).append(')');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String getBinaryUuidType() {
+        return "BINARY(16)";
+    }
+
+    @Override
+    public String tableOptions() {
+        return " ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci";
+    }
+
+    /**
+     * MySQL的DDL会隐式提交，使用单条 RENAME TABLE 原子地交换两张表
+     */
+    @Override
+    public List<String> swapTables(String table, String replacement, String backup) {
+        return List.of("RENAME TABLE " + table + " TO " + backup + ", " + replacement + " TO " + table);
+    }
+}
@@ -0,0 +1,110 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.model.PlayerData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * 玩家数据的二进制编码，用于日志存储和本地写入日志
+ */
+final class PlayerDataCodec {
+
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private PlayerDataCodec() {
+    }
+
+    static byte[] encode(PlayerData data) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(data.getUuid().getMostSignificantBits());
+            out.writeLong(data.getUuid().getLeastSignificantBits());
+            byte[] name = data.getPlayerName() != null
+                    ? data.getPlayerName().getBytes(StandardCharsets.UTF_8)
+                    : null;
+            out.writeShort(name != null ? name.length : -1);
+            if (name != null) {
+                out.write(name);
+            }
+            out.writeLong(toEpochDay(data.getBirthDate()));
+            out.writeInt(data.getLastClaimYear());
+            out.writeLong(toEpochDay(data.getLastClaimDate()));
+            out.writeInt(data.getModifyCountThisYear());
+            out.writeInt(data.getLastModifyYear());
+            out.writeLong(toEpochDay(data.getAvatarFrameExpiry()));
+            out.writeLong(toEpochDay(data.getCreatedAt()));
+            out.writeLong(toEpochDay(data.getUpdatedAt()));
+            out.writeInt(data.getTotalClaimCount());
+            out.writeLong(toEpochDay(data.getFirstClaimDate()));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 解码一条完整的玩家数据，长度不符时视为损坏
+     */
+    static PlayerData decode(ByteBuffer in) {
+        try {
+            PlayerData data = read(in);
+            if (in.hasRemaining()) {
+                throw new IllegalStateException("玩家数据记录已损坏: 末尾多出 " + in.remaining() + " 字节");
+            }
+            return data;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("玩家数据记录已损坏: 长度不足", e);
+        }
+    }
+
+    private static PlayerData read(ByteBuffer in) {
+        UUID uuid = new UUID(in.getLong(), in.getLong());
+        int nameLength = in.getShort();
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            in.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        LocalDate birthDate = fromEpochDay(in.getLong());
+        int lastClaimYear = in.getInt();
+        LocalDate lastClaimDate = fromEpochDay(in.getLong());
+        int modifyCountThisYear = in.getInt();
+        int lastModifyYear = in.getInt();
+        LocalDate avatarFrameExpiry = fromEpochDay(in.getLong());
+        LocalDate createdAt = fromEpochDay(in.getLong());
+        LocalDate updatedAt = fromEpochDay(in.getLong());
+        int totalClaimCount = in.getInt();
+        LocalDate firstClaimDate = fromEpochDay(in.getLong());
+        return new PlayerData(uuid, name, birthDate, lastClaimYear, lastClaimDate,
+                modifyCountThisYear, lastModifyYear, avatarFrameExpiry,
+                totalClaimCount, firstClaimDate, createdAt, updatedAt);
+    }
+
+    static long toEpochDay(LocalDate date) {
+        return date != null ? date.toEpochDay() : NULL_DATE;
+    }
+
+    static LocalDate fromEpochDay(long epochDay) {
+        return epochDay != NULL_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    static byte[] encodeUuid(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    static UUID decodeUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+}
@@ -0,0 +1,19 @@
+package com.birthdayperks.database;
+
+/**
+ * 分页浏览玩家数据时的排序方式
+ */
+public enum PlayerSortOrder {
+    /**
+     * 按玩家名，不包含没有名字的记录
+     */
+    NAME,
+    /**
+     * 按距离下次生日的天数，只包含已设置生日的玩家
+     */
+    NEXT_BIRTHDAY,
+    /**
+     * 按最近一次领取福利的日期倒序，只包含领取过福利的玩家
+     */
+    LAST_CLAIM
+}
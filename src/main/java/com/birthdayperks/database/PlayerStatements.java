@@ -0,0 +1,166 @@
+package com.birthdayperks.database;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.birthdayperks.database.AbstractDatabase.CLAIM_TABLE_NAME;
+import static com.birthdayperks.database.AbstractDatabase.COLUMNS;
+import static com.birthdayperks.database.AbstractDatabase.INSERT_COLUMNS;
+import static com.birthdayperks.database.AbstractDatabase.IN_QUERY_CHUNK_SIZE;
+import static com.birthdayperks.database.AbstractDatabase.TABLE_NAME;
+
+/**
+ * 玩家数据表的全部SQL语句，在数据库初始化时按方言生成一次
+ */
+final class PlayerStatements {
+
+    // 各修改标记对应的列，下标为 PlayerData.DIRTY_* 的位序号，列顺序与绑定顺序一致
+    static final String[][] DIRTY_COLUMNS = {
+            {"player_name", "player_name_lower"},
+            {"birth_year", "birthday_month", "birthday_day", "birthday_doy"},
+            {"last_claim_year", "last_claim_date", "total_claim_count", "first_claim_date"},
+            {"modify_count_this_year", "last_modify_year"},
+            {"avatar_frame_expiry"}
+    };
+
+    static final int RANGE_ALL = 0;
+    static final int RANGE_BETWEEN = 1;
+    static final int RANGE_WRAPPED = 2;
+
+    final String selectByUuid;
+    final String selectByUuidChunk;
+    final String selectByName;
+    final String upsert;
+    final String delete;
+    final String selectByBirthday;
+    final String exists;
+    final String claim;
+    final String insertClaim;
+    final String selectAll;
+    final String selectAllWithBirthday;
+    final String selectFirstPage;
+    final String selectPageAfter;
+    final String countByMonth;
+    final String summary;
+    private final String[][] upcoming = new String[3][2];
+    private final String[][] pages = new String[PlayerSortOrder.values().length][2];
+    private final String[] updates = new String[1 << DIRTY_COLUMNS.length];
+
+    PlayerStatements(SqlDialect dialect) {
+        String select = "SELECT " + COLUMNS + " FROM " + TABLE_NAME;
+
+        // 主键和 created_at 只在首次插入时写入
+        List<String> updateColumns = Arrays.stream(INSERT_COLUMNS.split(","))
+                .map(String::trim)
+                .filter(column -> !column.equals("uuid") && !column.equals("created_at"))
+                .collect(Collectors.toList());
+
+        this.selectByUuid = select + " WHERE uuid = ?";
+        this.selectByUuidChunk = buildSelectByUuids(IN_QUERY_CHUNK_SIZE);
+        // 改过名的玩家可能留下同名的旧记录，取最近更新的一条
+        this.selectByName = select + " WHERE player_name_lower = ? ORDER BY updated_at DESC LIMIT 1";
+        this.upsert = dialect.upsert(TABLE_NAME, INSERT_COLUMNS, "uuid", updateColumns);
+        this.delete = "DELETE FROM " + TABLE_NAME + " WHERE uuid = ?";
+        this.selectByBirthday = select + " WHERE birthday_month = ? AND birthday_day = ?";
+        this.exists = "SELECT 1 FROM " + TABLE_NAME + " WHERE uuid = ?";
+        // 领取次数和首次领取日期与领取状态在同一条语句中更新
+        this.claim = "UPDATE " + TABLE_NAME + " SET last_claim_year = ?, last_claim_date = ?, updated_at = ?, " +
+                "total_claim_count = COALESCE(total_claim_count, 0) + 1, " +
+                "first_claim_date = COALESCE(first_claim_date, ?)" +
+                " WHERE uuid = ? AND COALESCE(last_claim_year, 0) < ?";
+        this.insertClaim = "INSERT INTO " + CLAIM_TABLE_NAME +
+                " (uuid, claim_year, claimed_at, server_id) VALUES (?, ?, ?, ?)";
+        this.selectAll = select;
+        this.selectAllWithBirthday = select + " WHERE birthday_month IS NOT NULL AND birthday_day IS NOT NULL";
+        this.selectFirstPage = select + " ORDER BY uuid LIMIT ?";
+        this.selectPageAfter = select + " WHERE uuid > ? ORDER BY uuid LIMIT ?";
+
+        // 键集分页：排序列相同时以uuid区分，下一页从上一页最后一行之后开始
+        pages[PlayerSortOrder.NAME.ordinal()][0] = select +
+                " WHERE player_name IS NOT NULL ORDER BY player_name, uuid LIMIT ?";
+        pages[PlayerSortOrder.NAME.ordinal()][1] = select +
+                " WHERE player_name > ? OR (player_name = ? AND uuid > ?) ORDER BY player_name, uuid LIMIT ?";
+        // 按下次生日排序时分为 [明天, 年底] 和 [年初, 今天] 两段，每段内按 birthday_doy 顺序扫描索引
+        pages[PlayerSortOrder.NEXT_BIRTHDAY.ordinal()][0] = select +
+                " WHERE birthday_doy BETWEEN ? AND ? ORDER BY birthday_doy, uuid LIMIT ?";
+        pages[PlayerSortOrder.NEXT_BIRTHDAY.ordinal()][1] = select +
+                " WHERE birthday_doy BETWEEN ? AND ? AND (birthday_doy > ? OR (birthday_doy = ? AND uuid > ?))" +
+                " ORDER BY birthday_doy, uuid LIMIT ?";
+        pages[PlayerSortOrder.LAST_CLAIM.ordinal()][0] = select +
+                " WHERE last_claim_date IS NOT NULL ORDER BY last_claim_date DESC, uuid DESC LIMIT ?";
+        pages[PlayerSortOrder.LAST_CLAIM.ordinal()][1] = select +
+                " WHERE last_claim_date < ? OR (last_claim_date = ? AND uuid < ?)" +
+                " ORDER BY last_claim_date DESC, uuid DESC LIMIT ?";
+
+        // 按月份分组只需扫描 idx_birthday 索引
+        this.countByMonth = "SELECT birthday_month, COUNT(*) FROM " + TABLE_NAME +
+                " WHERE birthday_month IS NOT NULL GROUP BY birthday_month";
+        this.summary = "SELECT COUNT(*), " +
+                "SUM(CASE WHEN birthday_month IS NULL THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN last_claim_year = ? THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN avatar_frame_expiry >= ? THEN 1 ELSE 0 END) FROM " + TABLE_NAME;
+
+        for (int mask = 1; mask < updates.length; mask++) {
+            updates[mask] = buildUpdate(mask);
+        }
+
+        // 使用 birthday_doy 索引做范围扫描，跨年时拆成两段；按距离生日天数排序
+        String[] where = {
+                "birthday_doy IS NOT NULL",
+                "birthday_doy BETWEEN ? AND ?",
+                "(birthday_doy >= ? OR birthday_doy <= ?)"
+        };
+        for (int kind = 0; kind < where.length; kind++) {
+            String sql = select + " WHERE " + where[kind] +
+                    " ORDER BY CASE WHEN birthday_doy >= ? THEN 0 ELSE 1 END, birthday_doy";
+            upcoming[kind][0] = sql;
+            upcoming[kind][1] = sql + " LIMIT ?";
+        }
+    }
+
+    /**
+     * 只更新修改标记对应列的语句，updated_at 总是一起更新
+     */
+    String update(int dirtyFields) {
+        return updates[dirtyFields];
+    }
+
+    private static String buildUpdate(int mask) {
+        StringBuilder sb = new StringBuilder("UPDATE ").append(TABLE_NAME).append(" SET ");
+        for (int bit = 0; bit < DIRTY_COLUMNS.length; bit++) {
+            if ((mask & (1 << bit)) == 0) {
+                continue;
+            }
+            for (String column : DIRTY_COLUMNS[bit]) {
+                sb.append(column).append(" = ?, ");
+            }
+        }
+        return sb.append("updated_at = ? WHERE uuid = ?").toString();
+    }
+
+    /**
+     * 按UUID批量查询，完整分块的语句已预先生成，只有最后一块需要临时拼接
+     */
+    String selectByUuids(int count) {
+        return count == IN_QUERY_CHUNK_SIZE ? selectByUuidChunk : buildSelectByUuids(count);
+    }
+
+    private static String buildSelectByUuids(int count) {
+        return "SELECT " + COLUMNS + " FROM " + TABLE_NAME +
+                " WHERE uuid IN (" + SqlDialect.placeholders(count) + ")";
+    }
+
+    String upcoming(int rangeKind, boolean limited) {
+        return upcoming[rangeKind][limited ? 1 : 0];
+    }
+
+    /**
+     * 分页查询语句
+     *
+     * @param first 是否为第一页（或按下次生日排序时某一段的开始）
+     */
+    String page(PlayerSortOrder sortOrder, boolean first) {
+        return pages[sortOrder.ordinal()][first ? 0 : 1];
+    }
+}
@@ -0,0 +1,212 @@
+package com.birthdayperks.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 基于 FileChannel 的追加日志
+ * 每条记录格式为: [长度 int][类型 byte][数据][CRC32 int]，长度包含类型和数据
+ * 重放时遇到长度为0或校验失败的记录即停止，之后的内容视为未写完的数据并截掉
+ * 追加只写入操作系统缓存，调用 {@link #sync()} 后才保证落盘
+ */
+public class RecordLog {
+
+    private static final int MAGIC = 0x5042504C; // "PBPL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private final File file;
+    private FileChannel channel;
+    private long position;
+    // 上次刷盘之后是否有新的写入
+    private boolean dirty;
+
+    public RecordLog(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开日志并按顺序重放所有完整的记录
+     *
+     * @return 丢弃的损坏字节数，0表示日志完整
+     */
+    public synchronized int open(RecordConsumer consumer) throws IOException {
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long length = channel.size();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("日志文件过大: " + length);
+        }
+
+        if (length < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.truncate(0);
+            writeFully(header, 0);
+            position = HEADER_SIZE;
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("不是有效的日志文件: " + file.getName());
+        }
+
+        int offset = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (offset + 4 <= length) {
+            int size = buffer.getInt(offset);
+            if (size <= 0 || offset + 4L + size + 4 > length) {
+                break;
+            }
+
+            ByteBuffer record = buffer.duplicate();
+            record.position(offset + 4).limit(offset + 4 + size);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(offset + 4 + size)) {
+                break;
+            }
+
+            byte type = record.get();
+            consumer.accept(type, record.slice());
+            offset += 4 + size + 4;
+        }
+        position = offset;
+
+        // 截掉最后一条完整记录之后的内容，避免以后被误认为有效记录
+        int discarded = (int) length - offset;
+        if (discarded > 0) {
+            channel.truncate(position);
+        }
+        return discarded;
+    }
+
+    /**
+     * 追加一条记录，写入失败时截掉写了一半的内容
+     */
+    public synchronized void append(byte type, byte[] payload) throws IOException {
+        int size = 1 + payload.length;
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+
+        ByteBuffer record = ByteBuffer.allocate(4 + size + 4)
+                .putInt(size).put(type).put(payload).putInt((int) crc.getValue());
+        record.flip();
+        try {
+            writeFully(record, position);
+        } catch (IOException e) {
+            channel.truncate(position);
+            throw e;
+        }
+        position += record.limit();
+        dirty = true;
+    }
+
+    /**
+     * 把已写入的记录刷到磁盘，没有新写入时直接返回
+     * 刷盘期间不持有锁，其他线程可以继续追加
+     */
+    public void sync() throws IOException {
+        FileChannel target;
+        long end;
+        synchronized (this) {
+            if (channel == null || !dirty) {
+                return;
+            }
+            target = channel;
+            end = position;
+        }
+        try {
+            target.force(false);
+        } catch (ClosedChannelException e) {
+            // 日志在刷盘期间被关闭或重写，两者都会自行刷盘
+            return;
+        }
+        synchronized (this) {
+            if (channel == target && position == end) {
+                dirty = false;
+            }
+        }
+    }
+
+    /**
+     * 用给定的记录重写整个日志：先写入临时文件并刷盘，再原子替换原文件
+     */
+    public synchronized void rewrite(byte type, Iterable<byte[]> payloads) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".compact");
+        long written;
+        try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            written = out.write(header);
+
+            CRC32 crc = new CRC32();
+            for (byte[] payload : payloads) {
+                int size = 1 + payload.length;
+                crc.reset();
+                crc.update(type);
+                crc.update(payload);
+                ByteBuffer record = ByteBuffer.allocate(4 + size + 4)
+                        .putInt(size).put(type).put(payload).putInt((int) crc.getValue());
+                record.flip();
+                while (record.hasRemaining()) {
+                    written += out.write(record);
+                }
+            }
+            out.force(true);
+        }
+
+        // Windows上无法替换仍被打开的文件，先关闭
+        channel.close();
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            position = written;
+            dirty = false;
+        } finally {
+            // 替换失败时继续使用原日志
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+
+    /**
+     * 已使用的日志大小（字节）
+     */
+    public synchronized long size() {
+        return position;
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        sync();
+        channel.close();
+        channel = null;
+    }
+
+    private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(byte type, ByteBuffer payload);
+    }
+}
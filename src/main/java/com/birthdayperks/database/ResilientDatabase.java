@@ -0,0 +1,738 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.manager.ConfigManager;
+import com.birthdayperks.manager.PlayerDataManager;
+import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.model.PlayerStatistics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * 数据库熔断器
+ * 连续出现连接错误后进入降级模式：不再访问数据库，读取使用缓存，写入和领取记录追加到本地日志，
+ * 定时探测数据库，恢复后按顺序分批回放本地日志，回放完成前的写入继续进入日志以保证顺序
+ * 本地日志由定时任务每秒刷盘一次，写入时不等待磁盘：服务器进程崩溃不会丢失记录，
+ * 操作系统崩溃或断电时最多丢失最近约1秒的记录
+ */
+public class ResilientDatabase implements Database {
+
+    // 保存记录，附带降级期间修改过的列
+    private static final byte TYPE_SAVE = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final byte TYPE_CLAIM = 3;
+    // 探测数据库连接的超时时间 (秒)
+    private static final int PROBE_TIMEOUT_SECONDS = 5;
+
+    private enum State {
+        // 正常访问数据库
+        CLOSED,
+        // 降级模式，不访问数据库
+        OPEN,
+        // 数据库已恢复，正在回放本地日志
+        RECOVERING
+    }
+
+    private final PlayerBirthdayPerks plugin;
+    private final Database delegate;
+    private final int failureThreshold;
+    private final long openDuration;
+    private final int replayBatchSize;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean maintaining = new AtomicBoolean();
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    // 本地日志及其内存中的副本，由this锁保护
+    private RecordLog journal;
+    private final List<JournalEntry> entries = new ArrayList<>();
+    private int replayed;
+
+    // 日志中每个玩家的最新数据，回放完成前优先于数据库中的数据
+    private final Map<UUID, PlayerData> journaled = new ConcurrentHashMap<>();
+    private final Set<UUID> journaledDeletes = ConcurrentHashMap.newKeySet();
+
+    private BukkitTask maintenanceTask;
+
+    public ResilientDatabase(PlayerBirthdayPerks plugin, Database delegate) {
+        this.plugin = plugin;
+        this.delegate = delegate;
+        ConfigManager config = plugin.getConfigManager();
+        this.failureThreshold = Math.max(1, config.getCircuitBreakerFailureThreshold());
+        this.openDuration = config.getCircuitBreakerOpenDuration();
+        this.replayBatchSize = Math.max(1, config.getJournalReplayBatchSize());
+    }
+
+    @Override
+    public void initialize() throws Exception {
+        delegate.initialize();
+
+        File dataFolder = plugin.getDataFolder();
+        if (!dataFolder.exists()) {
+            dataFolder.mkdirs();
+        }
+
+        synchronized (this) {
+            journal = new RecordLog(new File(dataFolder, plugin.getConfigManager().getJournalFile()));
+            int discarded = journal.open((type, payload) -> remember(decode(type, payload)));
+            if (discarded > 0) {
+                plugin.log(Level.WARNING, "本地写入日志末尾有 " + discarded + " 字节不完整的数据，已丢弃");
+            }
+            if (!entries.isEmpty()) {
+                // 上次运行时数据库不可用，启动后先回放
+                state = State.RECOVERING;
+                plugin.log(Level.WARNING, "发现 " + entries.size() + " 条尚未写入数据库的本地记录，将在后台回放");
+            }
+        }
+
+        maintenanceTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::maintain, 20L, 20L);
+    }
+
+    @Override
+    public void close() {
+        if (maintenanceTask != null) {
+            maintenanceTask.cancel();
+            maintenanceTask = null;
+        }
+        synchronized (this) {
+            if (journal != null) {
+                if (!entries.isEmpty()) {
+                    plugin.log(Level.WARNING, "仍有 " + (entries.size() - replayed) + " 条本地记录未写入数据库，将在下次启动时回放");
+                }
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    plugin.log(Level.SEVERE, "关闭本地写入日志失败: " + e.getMessage());
+                }
+                journal = null;
+            }
+        }
+        delegate.close();
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerData(PlayerData data) {
+        return savePlayerData(List.of(data), () -> delegate.savePlayerData(data));
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerData(Collection<PlayerData> dataList) {
+        return savePlayerData(dataList, () -> delegate.savePlayerData(dataList));
+    }
+
+    private CompletableFuture<Void> savePlayerData(Collection<PlayerData> dataList,
+                                                   Supplier<CompletableFuture<Void>> direct) {
+        synchronized (this) {
+            if (state != State.CLOSED) {
+                return journalSave(dataList);
+            }
+        }
+        return track(direct.get());
+    }
+
+    @Override
+    public CompletableFuture<PlayerData> getPlayerData(UUID uuid) {
+        if (journaledDeletes.contains(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        PlayerData pending = journaled.get(uuid);
+        if (pending != null) {
+            return CompletableFuture.completedFuture(pending.copy());
+        }
+        if (state != State.OPEN) {
+            return track(delegate.getPlayerData(uuid));
+        }
+
+        PlayerData cached = getCached(uuid);
+        return cached != null ? CompletableFuture.completedFuture(cached) : unavailable();
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, PlayerData>> getPlayerData(Collection<UUID> uuids) {
+        Map<UUID, PlayerData> result = new HashMap<>();
+        List<UUID> remaining = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            PlayerData pending = journaled.get(uuid);
+            if (pending != null) {
+                result.put(uuid, pending.copy());
+            } else if (!journaledDeletes.contains(uuid)) {
+                remaining.add(uuid);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        if (state != State.OPEN) {
+            return track(delegate.getPlayerData(remaining)).thenApply(loaded -> {
+                result.putAll(loaded);
+                return result;
+            });
+        }
+
+        // 降级模式下只有全部命中缓存才能返回，否则无法区分玩家是否存在
+        for (UUID uuid : remaining) {
+            PlayerData cached = getCached(uuid);
+            if (cached == null) {
+                return unavailable();
+            }
+            result.put(uuid, cached);
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<PlayerStatistics> getStatistics() {
+        return state == State.OPEN ? unavailable() : track(delegate.getStatistics());
+    }
+
+    @Override
+    public CompletableFuture<PlayerData> findByName(String playerName) {
+        // 日志中尚未回放的数据比数据库中的新
+        for (PlayerData pending : journaled.values()) {
+            if (playerName.equalsIgnoreCase(pending.getPlayerName())) {
+                return CompletableFuture.completedFuture(pending.copy());
+            }
+        }
+        if (state == State.OPEN) {
+            return unavailable();
+        }
+        return track(delegate.findByName(playerName))
+                .thenApply(data -> data != null && journaledDeletes.contains(data.getUuid()) ? null : data);
+    }
+
+    @Override
+    public CompletableFuture<Void> deletePlayerData(UUID uuid) {
+        synchronized (this) {
+            if (state != State.CLOSED) {
+                try {
+                    append(new JournalEntry(TYPE_DELETE, uuid, null, 0, 0));
+                    return CompletableFuture.completedFuture(null);
+                } catch (IOException e) {
+                    plugin.log(Level.SEVERE, "写入本地日志失败: " + e.getMessage());
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+        }
+        return track(delegate.deletePlayerData(uuid));
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getTodayBirthdayPlayers() {
+        return state == State.OPEN ? unavailable() : track(delegate.getTodayBirthdayPlayers());
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getBirthdayPlayers(int month, int day) {
+        return state == State.OPEN ? unavailable() : track(delegate.getBirthdayPlayers(month, day));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> playerDataExists(UUID uuid) {
+        if (journaledDeletes.contains(uuid)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (journaled.containsKey(uuid)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        if (state != State.OPEN) {
+            return track(delegate.playerDataExists(uuid));
+        }
+        return getCached(uuid) != null ? CompletableFuture.completedFuture(true) : unavailable();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryClaim(UUID uuid, int year) {
+        if (state == State.CLOSED) {
+            return track(delegate.tryClaim(uuid, year));
+        }
+        return resolve(uuid).thenApply(current -> journalClaim(uuid, year, current));
+    }
+
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return delegate.getExecutor();
+    }
+
+    @Override
+    public DatabaseExecutor getWriteExecutor() {
+        return delegate.getWriteExecutor();
+    }
+
+    @Override
+    public String getDatabaseType() {
+        return delegate.getDatabaseType();
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days) {
+        return state == State.OPEN ? unavailable() : track(delegate.getUpcomingBirthdays(days));
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getUpcomingBirthdays(int days, int limit) {
+        return state == State.OPEN ? unavailable() : track(delegate.getUpcomingBirthdays(days, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getAllPlayersWithBirthday() {
+        return state == State.OPEN ? unavailable() : track(delegate.getAllPlayersWithBirthday());
+    }
+
+    @Override
+    public CompletableFuture<Long> streamPlayers(boolean birthdaySetOnly, Consumer<PlayerData> consumer) {
+        return state == State.OPEN ? unavailable() : track(delegate.streamPlayers(birthdaySetOnly, consumer));
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersAfter(UUID afterKey, int limit) {
+        return state == State.OPEN ? unavailable() : track(delegate.getPlayersAfter(afterKey, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerData>> getPlayersPage(PlayerData after, int limit, PlayerSortOrder sortOrder) {
+        return state == State.OPEN ? unavailable() : track(delegate.getPlayersPage(after, limit, sortOrder));
+    }
+
+    @Override
+    public void markRemoteWrite(UUID uuid) {
+        delegate.markRemoteWrite(uuid);
+    }
+
+    @Override
+    public List<HikariDataSource> getDataSources() {
+        return delegate.getDataSources();
+    }
+
+    @Override
+    public DatabaseMetrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    /**
+     * 统计数据库调用结果，连续的连接错误达到阈值时进入降级模式
+     */
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                consecutiveFailures.set(0);
+            } else if (isConnectionFailure(error) && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                open("数据库连续 " + consecutiveFailures.get() + " 次连接失败");
+            }
+        });
+    }
+
+    private synchronized void open(String reason) {
+        if (state == State.OPEN) {
+            return;
+        }
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        plugin.log(Level.WARNING, reason + "，进入降级模式：读取使用缓存，写入保存到本地日志");
+    }
+
+    private static boolean isConnectionFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLRecoverableException
+                    || t instanceof SQLTimeoutException) {
+                return true;
+            }
+            // SQLState 08xxx 为连接错误
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> CompletableFuture<T> unavailable() {
+        return CompletableFuture.failedFuture(new DatabaseUnavailableException("数据库暂时不可用"));
+    }
+
+    private PlayerData getCached(UUID uuid) {
+        PlayerDataManager manager = plugin.getPlayerDataManager();
+        return manager != null ? manager.getCachedPlayerData(uuid) : null;
+    }
+
+    /**
+     * 获取玩家当前的数据：本地日志 > 缓存 > 数据库（仅回放阶段）
+     */
+    private CompletableFuture<PlayerData> resolve(UUID uuid) {
+        if (journaledDeletes.contains(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        PlayerData pending = journaled.get(uuid);
+        if (pending != null) {
+            return CompletableFuture.completedFuture(pending);
+        }
+        PlayerData cached = getCached(uuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return state == State.RECOVERING ? track(delegate.getPlayerData(uuid)) : unavailable();
+    }
+
+    private synchronized CompletableFuture<Void> journalSave(Collection<PlayerData> dataList) {
+        List<PlayerData> written = new ArrayList<>();
+        int[] dirty = new int[dataList.size()];
+        try {
+            for (PlayerData data : dataList) {
+                int fields = data.takeDirtyFields();
+                dirty[written.size()] = fields;
+                written.add(data);
+                if (data.isPersisted() && fields == 0) {
+                    continue;
+                }
+                // 尚未写入过数据库的玩家回放时写入整行
+                int replayFields = data.isPersisted() ? fields : PlayerData.DIRTY_ALL;
+                append(new JournalEntry(TYPE_SAVE, data.getUuid(), data.copy(), 0, replayFields));
+            }
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            for (int i = 0; i < written.size(); i++) {
+                written.get(i).markDirty(dirty[i]);
+            }
+            plugin.log(Level.SEVERE, "写入本地日志失败: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private synchronized boolean journalClaim(UUID uuid, int year, PlayerData current) {
+        // 等待期间日志中可能已有更新的数据
+        PlayerData latest = journaled.getOrDefault(uuid, current);
+        if (latest == null || journaledDeletes.contains(uuid) || latest.getLastClaimYear() >= year) {
+            return false;
+        }
+
+        PlayerData claimed = latest.copy();
+        claimed.markClaimed(year);
+        claimed.clearDirtyFields(PlayerData.DIRTY_ALL);
+        try {
+            append(new JournalEntry(TYPE_CLAIM, uuid, claimed, year, 0));
+            return true;
+        } catch (IOException e) {
+            plugin.log(Level.SEVERE, "写入本地日志失败: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 写入本地日志并更新内存中的副本，调用方需持有锁
+     */
+    private void append(JournalEntry entry) throws IOException {
+        if (journal == null) {
+            throw new IOException("本地写入日志已关闭");
+        }
+        journal.append(entry.type, encode(entry));
+        remember(entry);
+    }
+
+    private void remember(JournalEntry entry) {
+        entries.add(entry);
+        if (entry.type == TYPE_DELETE) {
+            journaled.remove(entry.uuid);
+            journaledDeletes.add(entry.uuid);
+        } else {
+            journaledDeletes.remove(entry.uuid);
+            journaled.put(entry.uuid, entry.data);
+        }
+    }
+
+    /**
+     * 定时任务：刷盘本地日志，降级一段时间后探测数据库，恢复后回放本地日志
+     */
+    private void maintain() {
+        // 探测或回放可能耗时较长，刷盘不能被它们阻塞
+        syncJournal();
+        if (!maintaining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() - openedAt < openDuration) {
+                    return;
+                }
+                if (!probe()) {
+                    openedAt = System.currentTimeMillis();
+                    return;
+                }
+                synchronized (this) {
+                    state = State.RECOVERING;
+                    consecutiveFailures.set(0);
+                    plugin.log(Level.INFO, "数据库已恢复连接，开始回放 " + (entries.size() - replayed) + " 条本地记录");
+                }
+            }
+            if (state == State.RECOVERING) {
+                replay();
+            }
+        } finally {
+            maintaining.set(false);
+        }
+    }
+
+    private void syncJournal() {
+        RecordLog log;
+        synchronized (this) {
+            log = journal;
+        }
+        if (log == null) {
+            return;
+        }
+        try {
+            log.sync();
+        } catch (IOException e) {
+            plugin.log(Level.SEVERE, "本地写入日志刷盘失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 从主库连接池取一个连接并检查是否可用，不依赖任何表或玩家数据
+     */
+    private boolean probe() {
+        List<HikariDataSource> dataSources = delegate.getDataSources();
+        if (dataSources.isEmpty()) {
+            return true;
+        }
+        try (Connection conn = dataSources.get(0).getConnection()) {
+            if (conn.isValid(PROBE_TIMEOUT_SECONDS)) {
+                return true;
+            }
+            plugin.debug("数据库探测失败: 连接不可用");
+            return false;
+        } catch (SQLException e) {
+            plugin.debug("数据库探测失败: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void replay() {
+        while (true) {
+            List<JournalEntry> batch;
+            int end;
+            synchronized (this) {
+                if (journal == null) {
+                    return;
+                }
+                if (replayed >= entries.size()) {
+                    finishRecovery();
+                    return;
+                }
+                batch = new ArrayList<>(entries.subList(replayed, Math.min(entries.size(), replayed + replayBatchSize)));
+                end = replayed + batch.size();
+            }
+
+            try {
+                apply(batch);
+            } catch (CompletionException e) {
+                if (isConnectionFailure(e)) {
+                    open("回放本地记录失败 (" + e.getMessage() + ")");
+                    return;
+                }
+                // 数据错误重试也不会成功，逐条回放这一批中尚未写入的记录并跳过出错的记录，否则日志永远无法清空
+                if (!applyEach(end)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 逐条回放到 end 之前的记录，连接错误时重新进入降级模式并返回false
+     */
+    private boolean applyEach(int end) {
+        while (true) {
+            JournalEntry entry;
+            synchronized (this) {
+                if (journal == null) {
+                    return false;
+                }
+                if (replayed >= end) {
+                    return true;
+                }
+                entry = entries.get(replayed);
+            }
+
+            try {
+                apply(List.of(entry));
+            } catch (CompletionException e) {
+                if (isConnectionFailure(e)) {
+                    open("回放本地记录失败 (" + e.getMessage() + ")");
+                    return false;
+                }
+                plugin.log(Level.SEVERE, "本地记录无法写入数据库，已跳过: " + describe(entry) + " (" + e.getMessage() + ")");
+                advance(1);
+            }
+        }
+    }
+
+    /**
+     * 按日志顺序写入数据库，相邻的保存记录合并为一次批量写入
+     * 每写入一部分记录就推进回放位置，出错时已写入的记录不会再次回放
+     */
+    private void apply(List<JournalEntry> batch) {
+        Map<UUID, PlayerData> saves = new LinkedHashMap<>();
+        int staged = 0;
+        for (JournalEntry entry : batch) {
+            if (entry.type == TYPE_SAVE) {
+                stage(saves, entry);
+                staged++;
+                continue;
+            }
+
+            flushSaves(saves);
+            advance(staged);
+            staged = 0;
+            if (entry.type == TYPE_DELETE) {
+                delegate.deletePlayerData(entry.uuid).join();
+            } else if (!delegate.tryClaim(entry.uuid, entry.year).join()) {
+                plugin.log(Level.WARNING, "玩家 " + entry.uuid + " 在降级期间领取了 " + entry.year
+                        + " 年的生日福利，但数据库中已有领取记录");
+            }
+            advance(1);
+        }
+        flushSaves(saves);
+        advance(staged);
+    }
+
+    private synchronized void advance(int count) {
+        replayed += count;
+    }
+
+    private static String describe(JournalEntry entry) {
+        return switch (entry.type) {
+            case TYPE_SAVE -> "保存玩家 " + entry.uuid + " (" + entry.data.getPlayerName() + ")";
+            case TYPE_DELETE -> "删除玩家 " + entry.uuid;
+            default -> "玩家 " + entry.uuid + " 领取 " + entry.year + " 年的生日福利";
+        };
+    }
+
+    /**
+     * 把保存记录加入待写入的行，同一玩家的多条记录合并修改过的列
+     * 只更新这些列，避免用降级期间的旧数据覆盖其他服务器写入的列；
+     * 降级期间新建的玩家在数据库中没有对应的行，批量保存更新不到行时会改为写入整行
+     */
+    private static void stage(Map<UUID, PlayerData> saves, JournalEntry entry) {
+        PlayerData previous = saves.get(entry.uuid);
+        PlayerData row = entry.data.copy();
+        row.markDirty(entry.fields | (previous != null ? previous.getDirtyFields() : 0));
+        saves.put(entry.uuid, row);
+    }
+
+    private void flushSaves(Map<UUID, PlayerData> saves) {
+        if (saves.isEmpty()) {
+            return;
+        }
+        List<PlayerData> rows = new ArrayList<>(saves.values());
+        saves.clear();
+        delegate.savePlayerData(rows).join();
+    }
+
+    /**
+     * 所有记录已写入数据库，清空本地日志并恢复正常模式，调用方需持有锁
+     */
+    private void finishRecovery() {
+        try {
+            journal.rewrite(TYPE_SAVE, List.of());
+        } catch (IOException e) {
+            // 保持回放状态，下次定时任务重试，避免旧记录在重启后覆盖新数据
+            plugin.log(Level.SEVERE, "清空本地写入日志失败: " + e.getMessage());
+            return;
+        }
+
+        int count = entries.size();
+        entries.clear();
+        replayed = 0;
+        journaled.clear();
+        journaledDeletes.clear();
+        state = State.CLOSED;
+        if (count > 0) {
+            plugin.log(Level.INFO, "已将 " + count + " 条本地记录写入数据库，恢复正常模式");
+        }
+    }
+
+    private static byte[] encode(JournalEntry entry) {
+        return switch (entry.type) {
+            case TYPE_SAVE -> {
+                byte[] data = PlayerDataCodec.encode(entry.data);
+                yield ByteBuffer.allocate(4 + data.length)
+                        .putInt(entry.fields)
+                        .put(data)
+                        .array();
+            }
+            case TYPE_DELETE -> PlayerDataCodec.encodeUuid(entry.uuid);
+            default -> {
+                byte[] data = PlayerDataCodec.encode(entry.data);
+                yield ByteBuffer.allocate(4 + data.length)
+                        .putInt(entry.year)
+                        .put(data)
+                        .array();
+            }
+        };
+    }
+
+    private static JournalEntry decode(byte type, ByteBuffer payload) {
+        return switch (type) {
+            case TYPE_SAVE -> {
+                int fields = payload.getInt();
+                PlayerData data = PlayerDataCodec.decode(payload);
+                yield new JournalEntry(type, data.getUuid(), data, 0, fields);
+            }
+            case TYPE_DELETE -> new JournalEntry(type, PlayerDataCodec.decodeUuid(payload), null, 0, 0);
+            case TYPE_CLAIM -> {
+                int year = payload.getInt();
+                PlayerData data = PlayerDataCodec.decode(payload);
+                yield new JournalEntry(type, data.getUuid(), data, year, 0);
+            }
+            default -> throw new IllegalStateException("未知的本地日志记录类型: " + type);
+        };
+    }
+
+    private static final class JournalEntry {
+        private final byte type;
+        private final UUID uuid;
+        // 写入该记录后玩家的完整数据（删除记录为null）
+        private final PlayerData data;
+        // 领取记录的年份
+        private final int year;
+        // 保存记录回放时需要写入的列
+        private final int fields;
+
+        JournalEntry(byte type, UUID uuid, PlayerData data, int year, int fields) {
+            this.type = type;
+            this.uuid = uuid;
+            this.data = data;
+            this.year = year;
+            this.fields = fields;
+        }
+    }
+}
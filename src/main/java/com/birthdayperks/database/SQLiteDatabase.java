@@ -1,25 +1,58 @@
 package com.birthdayperks.database;
 
 import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.manager.ConfigManager;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.sqlite.SQLiteConfig;
 
 import java.io.File;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Level;
 
 public class SQLiteDatabase extends AbstractDatabase {
 
+    private static final String[] LOGGED_PRAGMAS = {
+            "journal_mode", "synchronous", "cache_size", "temp_store",
+            "page_size", "mmap_size", "busy_timeout", "wal_autocheckpoint"
+    };
+
     private final String dbFile;
 
     public SQLiteDatabase(PlayerBirthdayPerks plugin) {
-        super(plugin);
+        super(plugin, new SQLiteDialect());
         this.dbFile = plugin.getConfigManager().getSQLiteFile();
     }
 
     @Override
     protected HikariDataSource createDataSource() {
+        HikariConfig config = createConfig("BirthdayPerks-SQLite");
+        config.setMaximumPoolSize(1); // SQLite只支持单连接写入
+        config.setMinimumIdle(1);
+        // 自动检查点只由写连接在提交时触发
+        config.setConnectionInitSql("PRAGMA wal_autocheckpoint = "
+                + plugin.getConfigManager().getSQLiteWalAutocheckpoint());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * WAL模式下读操作不会被写入阻塞，查询使用独立的只读连接池
+     */
+    @Override
+    protected HikariDataSource createReadDataSource() {
+        int poolSize = Math.max(1, plugin.getConfigManager().getSQLiteReadPoolSize());
+        HikariConfig config = createConfig("BirthdayPerks-SQLite-Read");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(1);
+        config.setConnectionInitSql("PRAGMA query_only = 1");
+        return new HikariDataSource(config);
+    }
+
+    private HikariConfig createConfig(String poolName) {
         File dataFolder = plugin.getDataFolder();
         if (!dataFolder.exists()) {
             dataFolder.mkdirs();
@@ -31,30 +64,50 @@ public class SQLiteDatabase extends AbstractDatabase {
         config.setDriverClassName("org.sqlite.JDBC");
         config.setJdbcUrl("jdbc:sqlite:" + dbPath.getAbsolutePath());
         config.setConnectionTestQuery("SELECT 1");
-        config.setMaximumPoolSize(1); // SQLite只支持单连接写入
-        config.setMinimumIdle(1);
         config.setIdleTimeout(60000);
         config.setMaxLifetime(60000);
         config.setConnectionTimeout(30000);
-        config.setPoolName("BirthdayPerks-SQLite");
+        config.setPoolName(poolName);
 
-        // SQLite优化配置
-        config.addDataSourceProperty("journal_mode", "WAL");
-        config.addDataSourceProperty("synchronous", "NORMAL");
-        config.addDataSourceProperty("cache_size", "10000");
-        config.addDataSourceProperty("temp_store", "MEMORY");
-
-        return new HikariDataSource(config);
+        // SQLite优化配置，由驱动在打开连接时以PRAGMA的形式执行
+        ConfigManager configManager = plugin.getConfigManager();
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        sqliteConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        sqliteConfig.setCacheSize(10000);
+        sqliteConfig.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        sqliteConfig.setPageSize(configManager.getSQLitePageSize());
+        sqliteConfig.setBusyTimeout(configManager.getSQLiteBusyTimeout());
+        sqliteConfig.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(configManager.getSQLiteMmapSize()));
+        config.setDataSourceProperties(sqliteConfig.toProperties());
+        return config;
     }
 
     @Override
-    protected void createIndexIfNotExists() throws SQLException {
-        String indexSql = "CREATE INDEX IF NOT EXISTS idx_birthday ON " + 
-                TABLE_NAME + " (birthday_month, birthday_day)";
-        
-        try (Connection conn = dataSource.getConnection();
+    public void initialize() throws Exception {
+        super.initialize();
+        logEffectivePragmas("写连接", dataSource);
+        logEffectivePragmas("读连接", getReadDataSource());
+    }
+
+    /**
+     * 读取连接上实际生效的PRAGMA值，配置写错或被驱动忽略时可以从日志中发现
+     */
+    private void logEffectivePragmas(String label, HikariDataSource source) {
+        StringBuilder sb = new StringBuilder();
+        try (Connection conn = source.getConnection();
              Statement stmt = conn.createStatement()) {
-            stmt.execute(indexSql);
+            for (String pragma : LOGGED_PRAGMAS) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+                    if (sb.length() > 0) {
+                        sb.append(", ");
+                    }
+                    sb.append(pragma).append('=').append(rs.next() ? rs.getString(1) : "?");
+                }
+            }
+            plugin.log(Level.INFO, "SQLite " + label + " PRAGMA: " + sb);
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "读取SQLite PRAGMA失败: " + e.getMessage());
         }
     }
 
@@ -0,0 +1,61 @@
+package com.birthdayperks.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+public class SQLiteDialect extends SqlDialect {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * 使用 ON CONFLICT DO UPDATE 原地更新；INSERT OR REPLACE 会先删除再插入整行，
+     * 导致索引项被重写，且没有写入的列（如 created_at）会丢失
+     */
+    @Override
+    public String upsert(String table, String columns, String keyColumn, List<String> updateColumns) {
+        StringBuilder sb = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(columns).append(") VALUES (")
+                .append(placeholders(columnCount(columns)))
+                .append(") ON CONFLICT(").append(keyColumn).append(") DO UPDATE SET ");
+        for (int i = 0; i < updateColumns.size(); i++) {
+            String column = updateColumns.get(i);
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(column).append(" = excluded.").append(column);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String getBinaryUuidType() {
+        return "BLOB";
+    }
+
+    /**
+     * SQLite驱动把DATE存储为本地时区零点的毫秒时间戳，这里直接按毫秒解码
+     */
+    @Override
+    public LocalDate readDate(ResultSet rs, int column) throws SQLException {
+        long millis = rs.getLong(column);
+        if (rs.wasNull()) {
+            return null;
+        }
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+    }
+
+    @Override
+    public void writeDate(PreparedStatement stmt, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            stmt.setNull(index, Types.BIGINT);
+        } else {
+            stmt.setLong(index, date.atStartOfDay(ZONE).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * 数据库结构迁移引擎
+ * 已执行的版本记录在 schema_version 表中，每个迁移只执行一次，并在独立事务中完成
+ */
+public class SchemaMigrator {
+
+    public static final String VERSION_TABLE = "schema_version";
+
+    private final PlayerBirthdayPerks plugin;
+    private final DataSource dataSource;
+
+    public SchemaMigrator(PlayerBirthdayPerks plugin, DataSource dataSource) {
+        this.plugin = plugin;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 按版本号顺序执行所有未执行的迁移
+     *
+     * @return 本次执行的迁移数量
+     */
+    public int migrate(List<Migration> migrations) throws SQLException {
+        createVersionTable();
+        Set<Integer> applied = getAppliedVersions();
+
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (!applied.contains(migration.getVersion())) {
+                pending.add(migration);
+            }
+        }
+        pending.sort(Comparator.comparingInt(Migration::getVersion));
+
+        for (Migration migration : pending) {
+            apply(migration);
+        }
+
+        if (!pending.isEmpty()) {
+            plugin.log(Level.INFO, "数据库结构已升级到 v" + pending.get(pending.size() - 1).getVersion());
+        }
+        return pending.size();
+    }
+
+    private void createVersionTable() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(128), " +
+                    "applied_at BIGINT, " +
+                    "execution_ms BIGINT" +
+                    ")");
+        }
+    }
+
+    private Set<Integer> getAppliedVersions() throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM " + VERSION_TABLE)) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+
+        // 注意：MySQL的DDL语句会隐式提交，所以迁移步骤本身必须是幂等的
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                migration.apply(conn);
+
+                long elapsed = System.currentTimeMillis() - start;
+                try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + VERSION_TABLE +
+                        " (version, description, applied_at, execution_ms) VALUES (?, ?, ?, ?)")) {
+                    stmt.setInt(1, migration.getVersion());
+                    stmt.setString(2, migration.getDescription());
+                    stmt.setLong(3, System.currentTimeMillis());
+                    stmt.setLong(4, elapsed);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+
+                plugin.log(Level.INFO, "数据库迁移 v" + migration.getVersion() + " (" +
+                        migration.getDescription() + ") 完成，耗时 " + elapsed + "ms");
+            } catch (SQLException e) {
+                conn.rollback();
+                plugin.log(Level.SEVERE, "数据库迁移 v" + migration.getVersion() + " (" +
+                        migration.getDescription() + ") 失败: " + e.getMessage());
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
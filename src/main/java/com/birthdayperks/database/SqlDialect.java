@@ -0,0 +1,74 @@
+package com.birthdayperks.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 数据库方言
+ * 负责生成各数据库语法不同的SQL片段，以及日期列的编解码
+ */
+public abstract class SqlDialect {
+
+    /**
+     * 生成插入或更新语句，主键冲突时只更新 updateColumns 中的列
+     */
+    public abstract String upsert(String table, String columns, String keyColumn, List<String> updateColumns);
+
+    /**
+     * 二进制UUID主键使用的列类型
+     */
+    public abstract String getBinaryUuidType();
+
+    /**
+     * 追加在建表语句末尾的表选项（存储引擎、字符集等），不需要时为空字符串
+     */
+    public String tableOptions() {
+        return "";
+    }
+
+    /**
+     * 用 replacement 表替换 table，原表重命名为 backup
+     */
+    public List<String> swapTables(String table, String replacement, String backup) {
+        return List.of(
+                "ALTER TABLE " + table + " RENAME TO " + backup,
+                "ALTER TABLE " + replacement + " RENAME TO " + table);
+    }
+
+    /**
+     * 读取日期列，直接解码为LocalDate（JDBC 4.2），不经过java.sql.Date
+     */
+    public LocalDate readDate(ResultSet rs, int column) throws SQLException {
+        return rs.getObject(column, LocalDate.class);
+    }
+
+    /**
+     * 写入日期列，null写入SQL NULL
+     */
+    public void writeDate(PreparedStatement stmt, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            stmt.setNull(index, Types.DATE);
+        } else {
+            stmt.setObject(index, date);
+        }
+    }
+
+    protected static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    protected static int columnCount(String columns) {
+        return columns.split(",").length;
+    }
+}
@@ -0,0 +1,67 @@
+package com.birthdayperks.database;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * UUID主键的存储格式
+ */
+public enum UuidStorage {
+
+    /**
+     * 36个字符的文本，兼容旧版本数据
+     */
+    TEXT {
+        @Override
+        public void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+            stmt.setString(index, uuid.toString());
+        }
+
+        @Override
+        public UUID read(ResultSet rs, int column) throws SQLException {
+            return UUID.fromString(rs.getString(column));
+        }
+
+        @Override
+        public String getSqlType(SqlDialect dialect) {
+            return "VARCHAR(36)";
+        }
+    },
+
+    /**
+     * 16字节的二进制，直接由UUID的高低两个long编码
+     */
+    BINARY {
+        @Override
+        public void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+            stmt.setBytes(index, ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array());
+        }
+
+        @Override
+        public UUID read(ResultSet rs, int column) throws SQLException {
+            ByteBuffer buffer = ByteBuffer.wrap(rs.getBytes(column));
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        @Override
+        public String getSqlType(SqlDialect dialect) {
+            return dialect.getBinaryUuidType();
+        }
+    };
+
+    public abstract void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException;
+
+    public abstract UUID read(ResultSet rs, int column) throws SQLException;
+
+    public abstract String getSqlType(SqlDialect dialect);
+
+    public static UuidStorage fromConfig(String value) {
+        return "binary".equalsIgnoreCase(value) ? BINARY : TEXT;
+    }
+}
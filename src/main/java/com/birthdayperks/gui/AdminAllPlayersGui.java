@@ -0,0 +1,191 @@
+package com.birthdayperks.gui;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.database.PlayerSortOrder;
+import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.util.ColorUtil;
+import com.birthdayperks.util.DateUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 分页浏览数据库中的所有玩家（包括离线玩家），每页一次查询
+ */
+public class AdminAllPlayersGui extends AbstractGui {
+
+    private static final int[] SLOTS = {
+            10, 11, 12, 13, 14, 15, 16,
+            19, 20, 21, 22, 23, 24, 25,
+            28, 29, 30, 31, 32, 33, 34
+    };
+
+    private final PlayerSortOrder sortOrder;
+    // 每一页的起始游标（上一页的最后一条数据），第一页为null，最后一个是当前页
+    private final List<PlayerData> cursors;
+
+    public AdminAllPlayersGui(PlayerBirthdayPerks plugin, Player player, PlayerSortOrder sortOrder) {
+        this(plugin, player, sortOrder, new ArrayList<>(Arrays.asList((PlayerData) null)));
+    }
+
+    private AdminAllPlayersGui(PlayerBirthdayPerks plugin, Player player, PlayerSortOrder sortOrder,
+                               List<PlayerData> cursors) {
+        super(plugin, player, "&c&l👥 全部玩家 &7- 第" + cursors.size() + "页", 5);
+        this.sortOrder = sortOrder;
+        this.cursors = cursors;
+        initialize();
+    }
+
+    @Override
+    public void initialize() {
+        fillBorder(Material.RED_STAINED_GLASS_PANE);
+
+        int page = cursors.size() - 1;
+        setItem(40, createItem(Material.PAPER, "&7第 &e" + (page + 1) + " &7页", Arrays.asList("&7加载中...")));
+
+        // 上一页
+        if (page > 0) {
+            ItemStack prevItem = createItem(
+                    Material.ARROW,
+                    "&e&l◀ 上一页",
+                    Arrays.asList("&7点击查看上一页")
+            );
+            setItem(38, prevItem, event -> {
+                playClickSound();
+                List<PlayerData> previous = new ArrayList<>(cursors.subList(0, page));
+                plugin.getGuiManager().openGui(player, new AdminAllPlayersGui(plugin, player, sortOrder, previous));
+            });
+        }
+
+        // 切换排序
+        PlayerSortOrder nextOrder = PlayerSortOrder.values()[(sortOrder.ordinal() + 1) % PlayerSortOrder.values().length];
+        ItemStack sortItem = createItem(
+                Material.HOPPER,
+                "&b&l⇅ 排序: &e" + sortName(sortOrder),
+                Arrays.asList(
+                        "&7" + sortDescription(sortOrder),
+                        "",
+                        "&a▶ 点击切换为: &e" + sortName(nextOrder)
+                )
+        );
+        setItem(44, sortItem, event -> {
+            playClickSound();
+            plugin.getGuiManager().openGui(player, new AdminAllPlayersGui(plugin, player, nextOrder));
+        });
+
+        // 返回按钮
+        ItemStack backItem = createItem(
+                Material.BARRIER,
+                "&c&l← 返回",
+                Arrays.asList("&7返回在线玩家列表")
+        );
+        setItem(36, backItem, event -> {
+            playClickSound();
+            plugin.getGuiManager().openGui(player, new AdminPlayerListGui(plugin, player, 0));
+        });
+
+        fillEmpty(Material.BLACK_STAINED_GLASS_PANE);
+
+        // 多取一条用于判断是否还有下一页
+        plugin.getDatabase().getPlayersPage(cursors.get(page), SLOTS.length + 1, sortOrder)
+                .thenAccept(players -> Bukkit.getScheduler().runTask(plugin, () -> showPage(page, players)))
+                .exceptionally(error -> {
+                    Bukkit.getScheduler().runTask(plugin, () -> setItem(40, createItem(Material.PAPER,
+                            "&7第 &e" + (page + 1) + " &7页", Arrays.asList("&c加载失败: " + error.getMessage()))));
+                    return null;
+                });
+    }
+
+    private void showPage(int page, List<PlayerData> players) {
+        int shown = Math.min(players.size(), SLOTS.length);
+        for (int i = 0; i < shown; i++) {
+            PlayerData data = players.get(i);
+            setItem(SLOTS[i], createPlayerHead(data), event -> {
+                Player online = Bukkit.getPlayer(data.getUuid());
+                if (online != null) {
+                    playClickSound();
+                    plugin.getGuiManager().openGui(player, new AdminPlayerDetailGui(plugin, player, online, data));
+                }
+            });
+        }
+
+        setItem(40, createItem(
+                Material.PAPER,
+                "&7第 &e" + (page + 1) + " &7页",
+                Arrays.asList("&7本页 &e" + shown + " &7名玩家")
+        ));
+
+        // 下一页
+        if (players.size() > SLOTS.length) {
+            PlayerData last = players.get(SLOTS.length - 1);
+            ItemStack nextItem = createItem(
+                    Material.ARROW,
+                    "&e&l▶ 下一页",
+                    Arrays.asList("&7点击查看下一页")
+            );
+            setItem(42, nextItem, event -> {
+                playClickSound();
+                List<PlayerData> next = new ArrayList<>(cursors);
+                next.add(last);
+                plugin.getGuiManager().openGui(player, new AdminAllPlayersGui(plugin, player, sortOrder, next));
+            });
+        }
+    }
+
+    private ItemStack createPlayerHead(PlayerData data) {
+        ItemStack head = new ItemStack(Material.PLAYER_HEAD);
+        SkullMeta meta = (SkullMeta) head.getItemMeta();
+        if (meta != null) {
+            boolean online = Bukkit.getPlayer(data.getUuid()) != null;
+            meta.setOwningPlayer(Bukkit.getOfflinePlayer(data.getUuid()));
+            meta.setDisplayName(ColorUtil.colorize("&e" + (data.getPlayerName() != null ? data.getPlayerName() : data.getUuid())));
+
+            List<String> lore = new ArrayList<>();
+            lore.add(ColorUtil.colorize(online ? "&a● 在线" : "&7● 离线"));
+            if (data.hasBirthdaySet()) {
+                lore.add(ColorUtil.colorize("&7生日: &e" + DateUtil.formatMonthDayChinese(data.getBirthday())));
+                lore.add(ColorUtil.colorize("&7距离生日: &e" + data.getDaysUntilBirthday() + " 天"));
+            } else {
+                lore.add(ColorUtil.colorize("&7生日: &c未设置"));
+            }
+            lore.add(ColorUtil.colorize(data.getLastClaimDate() != null
+                    ? "&7上次领取: &f" + data.getLastClaimDate()
+                    : "&7上次领取: &7从未"));
+            if (online) {
+                lore.add("");
+                lore.add(ColorUtil.colorize("&a▶ 点击管理"));
+            }
+
+            meta.setLore(lore);
+            head.setItemMeta(meta);
+        }
+        return head;
+    }
+
+    private static String sortName(PlayerSortOrder sortOrder) {
+        return switch (sortOrder) {
+            case NAME -> "玩家名";
+            case NEXT_BIRTHDAY -> "下次生日";
+            case LAST_CLAIM -> "最近领取";
+        };
+    }
+
+    private static String sortDescription(PlayerSortOrder sortOrder) {
+        return switch (sortOrder) {
+            case NAME -> "按玩家名排序";
+            case NEXT_BIRTHDAY -> "按距离生日天数排序，只显示已设置生日的玩家";
+            case LAST_CLAIM -> "按领取日期从近到远排序，只显示领取过福利的玩家";
+        };
+    }
+
+    private void playClickSound() {
+        player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 0.5f, 1.0f);
+    }
+}
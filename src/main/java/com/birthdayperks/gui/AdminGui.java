@@ -1,6 +1,8 @@
 package com.birthdayperks.gui;
 
 import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.database.DatabaseExecutor;
+import com.birthdayperks.database.DatabaseMetrics;
 import com.birthdayperks.model.PlayerData;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -10,6 +12,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.SkullMeta;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -59,15 +62,42 @@ public class AdminGui extends AbstractGui {
         });
 
         // 数据库信息
-        ItemStack dbItem = createItem(
-                Material.CHEST,
-                "&d&l💾 数据库信息",
-                Arrays.asList(
-                        "&7数据库类型: &e" + plugin.getDatabase().getDatabaseType(),
-                        "",
-                        "&7存储玩家生日数据"
-                )
-        );
+        DatabaseExecutor executor = plugin.getDatabase().getExecutor();
+        DatabaseExecutor writeExecutor = plugin.getDatabase().getWriteExecutor();
+        List<String> dbLore = new ArrayList<>(Arrays.asList(
+                "&7数据库类型: &e" + plugin.getDatabase().getDatabaseType(),
+                "",
+                "&7线程池: &e" + executor.getActiveCount() + "&7/&e" + executor.getPoolSize() + " &7活跃",
+                "&7等待队列: &e" + executor.getQueueSize() + "&7/&e" + executor.getQueueCapacity(),
+                "&7写入队列: &e" + writeExecutor.getQueueSize() + "&7/&e" + writeExecutor.getQueueCapacity(),
+                "&7已拒绝任务: &e" + (writeExecutor == executor
+                        ? executor.getRejectedCount()
+                        : executor.getRejectedCount() + writeExecutor.getRejectedCount())
+        ));
+
+        DatabaseMetrics metrics = plugin.getDatabase().getMetrics();
+        if (metrics != null) {
+            for (DatabaseMetrics.PoolMetrics pool : metrics.getPools()) {
+                dbLore.add("&7" + pool.getName() + ": &e" + pool.getActiveConnections() + "&7/&e"
+                        + pool.getMaxConnections() + " &7活跃, 等待 &e" + pool.getPendingThreads()
+                        + "&7, 获取p99 &e" + String.format("%.1f", pool.getConnectionWait().getPercentileMillis(99)) + "ms");
+            }
+
+            // 按p99显示最慢的几个操作
+            metrics.getOperations().entrySet().stream()
+                    .filter(entry -> entry.getValue().getCount() > 0)
+                    .sorted((a, b) -> Double.compare(
+                            b.getValue().getPercentileMillis(99), a.getValue().getPercentileMillis(99)))
+                    .limit(3)
+                    .forEach(entry -> dbLore.add("&7" + entry.getKey() + ": &ep99 "
+                            + String.format("%.1f", entry.getValue().getPercentileMillis(99)) + "ms &7x"
+                            + entry.getValue().getCount()
+                            + (entry.getValue().getErrorCount() > 0 ? " &c错误 " + entry.getValue().getErrorCount() : "")));
+        }
+
+        dbLore.add("");
+        dbLore.add("&7使用 &e/pbp admin stats db &7查看详细统计");
+        ItemStack dbItem = createItem(Material.CHEST, "&d&l💾 数据库信息", dbLore);
         setItem(24, dbItem);
 
         // 今日过生日的玩家
@@ -97,6 +127,29 @@ public class AdminGui extends AbstractGui {
             });
         });
 
+        // 玩家统计，查询完成后替换占位物品
+        setItem(31, createItem(Material.BOOK, "&e&l📊 玩家统计", Arrays.asList("&7加载中...")));
+        plugin.getPlayerDataManager().getStatistics().thenAccept(stats -> Bukkit.getScheduler().runTask(plugin, () -> {
+            List<String> statsLore = new ArrayList<>(Arrays.asList(
+                    "&7玩家总数: &e" + stats.getTotalPlayers(),
+                    "&7未设置生日: &c" + stats.getPlayersWithoutBirthday(),
+                    "&7今年已领取: &e" + stats.getClaimsThisYear(),
+                    "&7有效头像框: &e" + stats.getActiveAvatarFrames(),
+                    "",
+                    "&7每月生日人数:"
+            ));
+            for (int first = 1; first <= 12; first += 4) {
+                StringBuilder line = new StringBuilder();
+                for (int month = first; month < first + 4; month++) {
+                    line.append("&7").append(month).append("月 &e").append(stats.getBirthdaysInMonth(month)).append("  ");
+                }
+                statsLore.add(line.toString().trim());
+            }
+            statsLore.add("");
+            statsLore.add("&7使用 &e/pbp admin stats &7查看");
+            setItem(31, createItem(Material.BOOK, "&e&l📊 玩家统计", statsLore));
+        }));
+
         // 插件信息
         ItemStack infoItem = createItem(
                 Material.KNOWLEDGE_BOOK,
@@ -1,6 +1,7 @@
 package com.birthdayperks.gui;
 
 import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.database.PlayerSortOrder;
 import com.birthdayperks.model.PlayerData;
 import com.birthdayperks.util.ColorUtil;
 import com.birthdayperks.util.DateUtil;
@@ -13,7 +14,10 @@ import org.bukkit.inventory.meta.SkullMeta;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public class AdminPlayerListGui extends AbstractGui {
 
@@ -42,15 +46,25 @@ public class AdminPlayerListGui extends AbstractGui {
                 28, 29, 30, 31, 32, 33, 34
         };
 
+        Map<Player, Integer> slotByPlayer = new LinkedHashMap<>();
         int slotIndex = 0;
         for (int i = start; i < end && slotIndex < slots.length; i++) {
             Player target = onlinePlayers.get(i);
             int slot = slots[slotIndex++];
-            
-            // 异步获取玩家数据
-            plugin.getPlayerDataManager().getPlayerData(target.getUniqueId())
-                    .thenAccept(data -> {
-                        Bukkit.getScheduler().runTask(plugin, () -> {
+            slotByPlayer.put(target, slot);
+
+            // 先放置一个占位符
+            ItemStack placeholder = createPlayerHeadPlaceholder(target);
+            setItem(slot, placeholder);
+        }
+
+        // 一次查询加载本页所有玩家数据
+        List<UUID> uuids = slotByPlayer.keySet().stream().map(Player::getUniqueId).toList();
+        plugin.getPlayerDataManager().getPlayerData(uuids)
+                .thenAccept(dataMap -> {
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        slotByPlayer.forEach((target, slot) -> {
+                            PlayerData data = dataMap.get(target.getUniqueId());
                             ItemStack head = createPlayerHead(target, data);
                             setItem(slot, head, event -> {
                                 playClickSound();
@@ -58,11 +72,7 @@ public class AdminPlayerListGui extends AbstractGui {
                             });
                         });
                     });
-
-            // 先放置一个占位符
-            ItemStack placeholder = createPlayerHeadPlaceholder(target);
-            setItem(slot, placeholder);
-        }
+                });
 
         // 上一页
         if (page > 0) {
@@ -98,6 +108,22 @@ public class AdminPlayerListGui extends AbstractGui {
             });
         }
 
+        // 全部玩家（包括离线玩家）
+        ItemStack allPlayersItem = createItem(
+                Material.BOOKSHELF,
+                "&b&l📚 全部玩家",
+                Arrays.asList(
+                        "&7浏览数据库中的所有玩家",
+                        "&7包括离线玩家，可按名字、生日或领取时间排序",
+                        "",
+                        "&a▶ 点击查看"
+                )
+        );
+        setItem(44, allPlayersItem, event -> {
+            playClickSound();
+            plugin.getGuiManager().openGui(player, new AdminAllPlayersGui(plugin, player, PlayerSortOrder.NAME));
+        });
+
         // 返回按钮
         ItemStack backItem = createItem(
                 Material.BARRIER,
@@ -362,7 +362,18 @@ public class ConfigurableGui extends AbstractGui {
         SkullMeta meta = (SkullMeta) head.getItemMeta();
         if (meta != null) {
             String ownerName = replacePlaceholders(owner);
-            meta.setOwningPlayer(Bukkit.getOfflinePlayer(ownerName));
+            // 不使用 getOfflinePlayer(name)，未知名字会在主线程上向Mojang查询
+            // 离线名字只创建不带UUID的档案，皮肤由服务器异步补全
+            Player online = Bukkit.getPlayerExact(ownerName);
+            if (online != null) {
+                meta.setOwningPlayer(online);
+            } else if (!ownerName.isEmpty()) {
+                try {
+                    meta.setOwnerProfile(Bukkit.createPlayerProfile(ownerName));
+                } catch (IllegalArgumentException e) {
+                    plugin.debug("无效的头颅玩家名: " + ownerName);
+                }
+            }
             head.setItemMeta(meta);
         }
         return head;
@@ -458,16 +469,13 @@ public class ConfigurableGui extends AbstractGui {
             return;
         }
 
+        if (!plugin.getConfigManager().isRewardsEnabled()) {
+            return;
+        }
+
         player.closeInventory();
-        
-        plugin.getRewardManager().giveRewards(player, playerData).thenAccept(success -> {
-            if (success) {
-                playerData.markClaimed();
-                plugin.getPlayerDataManager().savePlayerData(playerData);
-                Bukkit.getScheduler().runTask(plugin, () ->
-                        plugin.getMessageManager().sendRewardSuccess(player));
-            }
-        });
+
+        plugin.getRewardManager().claimRewards(player, playerData);
     }
 
     private String getZodiac(LocalDate date) {
@@ -221,16 +221,13 @@ public class MainMenuGui extends AbstractGui {
             return;
         }
 
+        if (!plugin.getConfigManager().isRewardsEnabled()) {
+            return;
+        }
+
         player.closeInventory();
-        
-        plugin.getRewardManager().giveRewards(player, playerData).thenAccept(success -> {
-            if (success) {
-                playerData.markClaimed();
-                plugin.getPlayerDataManager().savePlayerData(playerData);
-                org.bukkit.Bukkit.getScheduler().runTask(plugin, () ->
-                        plugin.getMessageManager().sendRewardSuccess(player));
-            }
-        });
+
+        plugin.getRewardManager().claimRewards(player, playerData);
     }
 
     private void playClickSound() {
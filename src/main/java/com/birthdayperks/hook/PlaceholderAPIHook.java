@@ -42,6 +42,8 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
     @Override
     public @Nullable String onRequest(OfflinePlayer player, @NotNull String params) {
         if (player == null) return "";
+        // 数据库加载完成前不查询
+        if (!plugin.isDatabaseReady()) return "";
 
         // 同步获取玩家数据（PAPI需要同步返回）
         PlayerData data = plugin.getPlayerDataManager().getPlayerDataSync(player.getUniqueId());
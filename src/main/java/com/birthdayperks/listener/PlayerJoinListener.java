@@ -31,6 +31,21 @@ public class PlayerJoinListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
+        if (!plugin.isDatabaseReady()) {
+            // 数据库尚未加载完成，排队等待加载完成后再处理
+            plugin.debug("数据库加载中，玩家 " + player.getName() + " 的数据稍后加载");
+            plugin.runWhenDatabaseReady(() -> {
+                if (player.isOnline()) {
+                    loadPlayer(player);
+                }
+            });
+            return;
+        }
+
+        loadPlayer(player);
+    }
+
+    private void loadPlayer(Player player) {
         // 异步处理玩家数据
         playerDataManager.getOrCreatePlayerData(player.getUniqueId(), player.getName())
                 .thenAccept(data -> {
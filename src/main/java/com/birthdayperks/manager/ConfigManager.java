@@ -3,6 +3,8 @@ package com.birthdayperks.manager;
 import com.birthdayperks.PlayerBirthdayPerks;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.List;
+
 public class ConfigManager {
 
     private final PlayerBirthdayPerks plugin;
@@ -18,16 +20,131 @@ public class ConfigManager {
         this.config = plugin.getConfig();
     }
 
+    // 服务器标识
+    public String getServerId() {
+        return config.getString("server-id", "default");
+    }
+
     // 数据库配置
     public String getDatabaseType() {
         return config.getString("database.type", "sqlite");
     }
 
+    // 数据库线程池配置
+    public int getDatabaseExecutorThreads() {
+        return config.getInt("database.executor.threads", 4);
+    }
+
+    public int getDatabaseExecutorQueueSize() {
+        return config.getInt("database.executor.queue-size", 1000);
+    }
+
+    public long getDatabaseExecutorShutdownTimeout() {
+        return config.getLong("database.executor.shutdown-timeout", 10000);
+    }
+
+    public String getUuidStorage() {
+        return config.getString("database.uuid-storage", "text");
+    }
+
+    public int getDatabaseFetchSize() {
+        return config.getInt("database.fetch-size", 500);
+    }
+
+    // 延迟写入配置
+    public boolean isWriteBehindEnabled() {
+        return config.getBoolean("database.write-behind.enabled", false);
+    }
+
+    public long getWriteBehindFlushInterval() {
+        return config.getLong("database.write-behind.flush-interval", 5000);
+    }
+
+    public int getWriteBehindMaxBatchSize() {
+        return config.getInt("database.write-behind.max-batch-size", 100);
+    }
+
     // SQLite配置
     public String getSQLiteFile() {
         return config.getString("database.sqlite.file", "data.db");
     }
 
+    public String getH2File() {
+        return config.getString("database.h2.file", "data");
+    }
+
+    public boolean isH2InMemory() {
+        return "memory".equalsIgnoreCase(config.getString("database.h2.mode", "file"));
+    }
+
+    public int getSQLiteReadPoolSize() {
+        return config.getInt("database.sqlite.read-pool-size", 4);
+    }
+
+    public long getSQLiteMmapSize() {
+        return config.getLong("database.sqlite.pragmas.mmap-size", 268435456L);
+    }
+
+    public int getSQLitePageSize() {
+        return config.getInt("database.sqlite.pragmas.page-size", 4096);
+    }
+
+    public int getSQLiteBusyTimeout() {
+        return config.getInt("database.sqlite.pragmas.busy-timeout", 5000);
+    }
+
+    public int getSQLiteWalAutocheckpoint() {
+        return config.getInt("database.sqlite.pragmas.wal-autocheckpoint", 1000);
+    }
+
+    // 熔断和本地写入日志配置
+    public boolean isCircuitBreakerEnabled() {
+        return config.getBoolean("database.circuit-breaker.enabled", false);
+    }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return config.getInt("database.circuit-breaker.failure-threshold", 5);
+    }
+
+    public long getCircuitBreakerOpenDuration() {
+        return config.getLong("database.circuit-breaker.open-duration", 10000);
+    }
+
+    public String getJournalFile() {
+        return config.getString("database.circuit-breaker.journal-file", "journal.log");
+    }
+
+    public int getJournalReplayBatchSize() {
+        return config.getInt("database.circuit-breaker.replay-batch-size", 100);
+    }
+
+    // 日志存储配置
+    public String getLogFile() {
+        return config.getString("database.log.file", "players.log");
+    }
+
+    public String getLogClaimsFile() {
+        return config.getString("database.log.claims-file", "claims.log");
+    }
+
+    public long getLogSyncInterval() {
+        return config.getLong("database.log.sync-interval", 1000);
+    }
+
+    // 数据迁移配置
+    public int getMigrationChunkSize() {
+        return config.getInt("database.migration.chunk-size", 500);
+    }
+
+    // 领取记录配置
+    public long getClaimHistoryFlushInterval() {
+        return config.getLong("database.claim-history.flush-interval", 2000);
+    }
+
+    public int getClaimHistoryBatchSize() {
+        return config.getInt("database.claim-history.batch-size", 100);
+    }
+
     // MySQL配置
     public String getMySQLHost() {
         return config.getString("database.mysql.host", "localhost");
@@ -69,6 +186,14 @@ public class ConfigManager {
         return config.getLong("database.mysql.pool.max-lifetime", 1800000);
     }
 
+    public List<String> getMySQLReplicas() {
+        return config.getStringList("database.mysql.replicas.hosts");
+    }
+
+    public long getMySQLReadYourWritesWindow() {
+        return config.getLong("database.mysql.replicas.read-your-writes-window", 3000);
+    }
+
     // 生日配置
     public boolean isAllowModify() {
         return config.getBoolean("birthday.allow-modify", false);
@@ -166,6 +291,27 @@ public class ConfigManager {
         return config.getInt("cache.max-size", 1000);
     }
 
+    public int getStatisticsCacheSeconds() {
+        return config.getInt("cache.statistics-ttl", 60);
+    }
+
+    // 跨服缓存同步配置
+    public boolean isCacheSyncEnabled() {
+        return config.getBoolean("cache.sync.enabled", false);
+    }
+
+    public String getCacheSyncTransport() {
+        return config.getString("cache.sync.transport", "sql");
+    }
+
+    public long getCacheSyncInterval() {
+        return config.getLong("cache.sync.interval", 1000);
+    }
+
+    public int getCacheSyncRetentionSeconds() {
+        return config.getInt("cache.sync.retention", 600);
+    }
+
     // 调试模式
     public boolean isDebugEnabled() {
         return config.getBoolean("debug", false);
@@ -1,13 +1,24 @@
 package com.birthdayperks.manager;
 
 import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.database.DatabaseUnavailableException;
 import com.birthdayperks.model.PlayerData;
+import com.birthdayperks.model.PlayerStatistics;
+import com.birthdayperks.sync.CacheInvalidationBus;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 public class PlayerDataManager {
 
@@ -16,11 +27,36 @@ public class PlayerDataManager {
     private final long cacheExpireMillis;
     private final int maxCacheSize;
 
+    // 延迟写入：每个玩家只保留最新的待保存数据
+    private final Map<UUID, PlayerData> pendingSaves;
+    // 已从队列取出、正在写入数据库的数据
+    private final Map<UUID, PlayerData> inFlightSaves;
+    private final boolean writeBehindEnabled;
+    private final int writeBehindBatchSize;
+    private BukkitTask flushTask;
+    // 数据迁移期间暂停写入数据库，保存的数据留在待保存队列中
+    private volatile boolean writesPaused;
+
+    // 统计结果缓存，过期前的请求共用同一次查询
+    private final long statisticsTtlMillis;
+    private CompletableFuture<PlayerStatistics> statistics;
+    private long statisticsExpiresAt;
+
     public PlayerDataManager(PlayerBirthdayPerks plugin) {
         this.plugin = plugin;
         this.cache = new ConcurrentHashMap<>();
         this.cacheExpireMillis = TimeUnit.MINUTES.toMillis(plugin.getConfigManager().getCacheExpireMinutes());
         this.maxCacheSize = plugin.getConfigManager().getCacheMaxSize();
+        this.pendingSaves = new ConcurrentHashMap<>();
+        this.inFlightSaves = new ConcurrentHashMap<>();
+        this.writeBehindEnabled = plugin.getConfigManager().isWriteBehindEnabled();
+        this.writeBehindBatchSize = Math.max(1, plugin.getConfigManager().getWriteBehindMaxBatchSize());
+        this.statisticsTtlMillis = TimeUnit.SECONDS.toMillis(plugin.getConfigManager().getStatisticsCacheSeconds());
+
+        if (writeBehindEnabled) {
+            long intervalTicks = Math.max(1, plugin.getConfigManager().getWriteBehindFlushInterval() / 50);
+            this.flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, intervalTicks, intervalTicks);
+        }
     }
 
     public CompletableFuture<PlayerData> getPlayerData(UUID uuid) {
@@ -31,6 +67,13 @@ public class PlayerDataManager {
             return CompletableFuture.completedFuture(cached.getData());
         }
 
+        // 尚未写入数据库的数据比数据库中的更新
+        PlayerData unsaved = getUnsavedData(uuid);
+        if (unsaved != null) {
+            cachePlayerData(uuid, unsaved);
+            return CompletableFuture.completedFuture(unsaved);
+        }
+
         // 从数据库获取
         return plugin.getDatabase().getPlayerData(uuid).thenApply(data -> {
             if (data != null) {
@@ -40,6 +83,41 @@ public class PlayerDataManager {
         });
     }
 
+    /**
+     * 批量获取玩家数据，所有缓存未命中的玩家通过一次查询加载
+     */
+    public CompletableFuture<Map<UUID, PlayerData>> getPlayerData(Collection<UUID> uuids) {
+        Map<UUID, PlayerData> result = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+
+        long now = System.currentTimeMillis();
+        for (UUID uuid : uuids) {
+            CacheEntry cached = cache.get(uuid);
+            PlayerData unsaved;
+            if (cached != null && !cached.isExpired(now)) {
+                result.put(uuid, cached.getData());
+            } else if ((unsaved = getUnsavedData(uuid)) != null) {
+                cachePlayerData(uuid, unsaved);
+                result.put(uuid, unsaved);
+            } else {
+                misses.add(uuid);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        plugin.debug("批量加载玩家数据: 缓存命中 " + result.size() + "，查询 " + misses.size());
+        return plugin.getDatabase().getPlayerData(misses).thenApply(loaded -> {
+            loaded.forEach((uuid, data) -> {
+                cachePlayerData(uuid, data);
+                result.put(uuid, data);
+            });
+            return result;
+        });
+    }
+
     public CompletableFuture<PlayerData> getOrCreatePlayerData(UUID uuid, String playerName) {
         return getPlayerData(uuid).thenCompose(data -> {
             if (data != null) {
@@ -60,12 +138,185 @@ public class PlayerDataManager {
 
     public CompletableFuture<Void> savePlayerData(PlayerData data) {
         cachePlayerData(data.getUuid(), data);
-        return plugin.getDatabase().savePlayerData(data);
+
+        if (!writeBehindEnabled && !writesPaused) {
+            return plugin.getDatabase().savePlayerData(data).thenRun(() -> publishChange(data.getUuid()));
+        }
+
+        // 延迟写入模式：合并到待保存队列，达到批量上限时立即刷新
+        pendingSaves.put(data.getUuid(), data);
+        if (!writesPaused && pendingSaves.size() >= writeBehindBatchSize) {
+            flush();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 领取今年的生日福利，以数据库中的条件更新为准
+     * 重复点击或多个服务器同时领取时只有一次能成功
+     */
+    public CompletableFuture<Boolean> tryClaim(PlayerData data) {
+        if (writesPaused) {
+            return CompletableFuture.failedFuture(new DatabaseUnavailableException("数据迁移进行中，暂停领取"));
+        }
+        UUID uuid = data.getUuid();
+        int year = LocalDate.now().getYear();
+
+        // 延迟写入中的数据先落库，保证条件更新能命中这一行
+        PlayerData pending = pendingSaves.remove(uuid);
+        CompletableFuture<Void> persisted = CompletableFuture.completedFuture(null);
+        if (pending != null) {
+            inFlightSaves.put(uuid, pending);
+            persisted = plugin.getDatabase().savePlayerData(pending).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    pendingSaves.putIfAbsent(uuid, pending);
+                }
+                inFlightSaves.remove(uuid, pending);
+            });
+        }
+
+        return persisted
+                .thenCompose(v -> plugin.getDatabase().tryClaim(uuid, year))
+                .thenApply(claimed -> {
+                    if (claimed) {
+                        // 领取记录已由条件更新写入，无需再次保存
+                        data.markClaimed();
+                        data.clearDirtyFields(PlayerData.DIRTY_CLAIM);
+                        publishChange(uuid);
+                    } else {
+                        // 已在其他地方领取，缓存中的数据已过时
+                        invalidateCache(uuid);
+                    }
+                    return claimed;
+                });
     }
 
     public CompletableFuture<Void> deletePlayerData(UUID uuid) {
+        if (writesPaused) {
+            return CompletableFuture.failedFuture(new DatabaseUnavailableException("数据迁移进行中，暂停删除"));
+        }
         cache.remove(uuid);
-        return plugin.getDatabase().deletePlayerData(uuid);
+        pendingSaves.remove(uuid);
+        inFlightSaves.remove(uuid);
+        return plugin.getDatabase().deletePlayerData(uuid).thenRun(() -> publishChange(uuid));
+    }
+
+    /**
+     * 获取玩家统计，缓存时间内直接返回上一次的结果，查询失败时下次重新查询
+     */
+    public synchronized CompletableFuture<PlayerStatistics> getStatistics() {
+        long now = System.currentTimeMillis();
+        if (statistics == null || now >= statisticsExpiresAt || statistics.isCompletedExceptionally()) {
+            statistics = plugin.getDatabase().getStatistics();
+            statisticsExpiresAt = now + statisticsTtlMillis;
+        }
+        return statistics;
+    }
+
+    /**
+     * 将待保存队列中的数据批量写入数据库，暂停写入期间不执行
+     */
+    public CompletableFuture<Void> flush() {
+        return writesPaused ? CompletableFuture.completedFuture(null) : writePending();
+    }
+
+    private CompletableFuture<Void> writePending() {
+        if (pendingSaves.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<PlayerData> batch = new ArrayList<>(pendingSaves.size());
+        for (UUID uuid : pendingSaves.keySet()) {
+            PlayerData data = pendingSaves.remove(uuid);
+            if (data != null) {
+                inFlightSaves.put(uuid, data);
+                batch.add(data);
+            }
+        }
+
+        plugin.debug("批量保存玩家数据: " + batch.size() + " 条");
+        return plugin.getDatabase().savePlayerData(batch).whenComplete((v, ex) -> {
+            for (PlayerData data : batch) {
+                if (ex != null) {
+                    // 写入失败，放回队列等待下次刷新（不覆盖更新的数据）
+                    pendingSaves.putIfAbsent(data.getUuid(), data);
+                } else {
+                    publishChange(data.getUuid());
+                }
+                inFlightSaves.remove(data.getUuid(), data);
+            }
+        });
+    }
+
+    /**
+     * 暂停写入数据库（数据迁移期间使用）
+     * 先写入队列中已有的数据，之后的保存留在队列中直到恢复，领取和删除直接失败
+     */
+    public CompletableFuture<Void> pauseWrites() {
+        writesPaused = true;
+        return writePending();
+    }
+
+    /**
+     * 恢复写入并写入暂停期间保存的数据
+     */
+    public void resumeWrites() {
+        writesPaused = false;
+        flush();
+    }
+
+    public boolean isWritesPaused() {
+        return writesPaused;
+    }
+
+    /**
+     * 获取尚未写入数据库的数据（在待保存队列中或正在写入）
+     */
+    private PlayerData getUnsavedData(UUID uuid) {
+        PlayerData data = pendingSaves.get(uuid);
+        return data != null ? data : inFlightSaves.get(uuid);
+    }
+
+    private boolean hasUnsavedData(UUID uuid) {
+        return pendingSaves.containsKey(uuid) || inFlightSaves.containsKey(uuid);
+    }
+
+    /**
+     * 通知其他服务器清除该玩家的缓存
+     */
+    private void publishChange(UUID uuid) {
+        CacheInvalidationBus bus = plugin.getInvalidationBus();
+        if (bus != null) {
+            bus.publish(uuid);
+        }
+    }
+
+    /**
+     * 停止定时刷新，并同步写入所有待保存数据（关服时调用）
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        // 关服时即使迁移尚未结束也要写入，迁移可以在下次启动后继续
+        writesPaused = false;
+
+        if (pendingSaves.isEmpty()) {
+            return;
+        }
+
+        int count = pendingSaves.size();
+        try {
+            flush().join();
+            plugin.log(Level.INFO, "已写入 " + count + " 条待保存的玩家数据");
+        } catch (Exception e) {
+            plugin.log(Level.SEVERE, "关服时写入待保存的玩家数据失败: " + e.getMessage());
+        }
+    }
+
+    public int getPendingSaveCount() {
+        return pendingSaves.size();
     }
 
     /**
@@ -82,6 +333,14 @@ public class PlayerDataManager {
         return null;
     }
 
+    /**
+     * 获取缓存中的玩家数据，包括已过期的条目（数据库不可用时使用）
+     */
+    public PlayerData getCachedPlayerData(UUID uuid) {
+        CacheEntry cached = cache.get(uuid);
+        return cached != null ? cached.getData() : null;
+    }
+
     private void cachePlayerData(UUID uuid, PlayerData data) {
         // 检查缓存大小
         if (cache.size() >= maxCacheSize) {
@@ -92,23 +351,30 @@ public class PlayerDataManager {
 
     private void cleanupCache() {
         long now = System.currentTimeMillis();
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+        // 尚未写入数据库的条目不移除，否则之后会从数据库读到旧数据
+        cache.entrySet().removeIf(entry -> entry.getValue().isExpired(now) && !hasUnsavedData(entry.getKey()));
 
         // 如果仍然超过限制，移除最旧的条目
         if (cache.size() >= maxCacheSize) {
             cache.entrySet().stream()
+                    .filter(entry -> !hasUnsavedData(entry.getKey()))
                     .sorted((a, b) -> Long.compare(a.getValue().getTimestamp(), b.getValue().getTimestamp()))
                     .limit(cache.size() - maxCacheSize + 100)
                     .forEach(entry -> cache.remove(entry.getKey()));
         }
     }
 
+    /**
+     * 清除玩家的缓存，有尚未写入数据库的数据时保留（写入后以本服的数据为准）
+     */
     public void invalidateCache(UUID uuid) {
-        cache.remove(uuid);
+        if (!hasUnsavedData(uuid)) {
+            cache.remove(uuid);
+        }
     }
 
     public void clearCache() {
-        cache.clear();
+        cache.keySet().removeIf(uuid -> !hasUnsavedData(uuid));
     }
 
     private class CacheEntry {
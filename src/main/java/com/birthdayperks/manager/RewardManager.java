@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 public class RewardManager {
 
@@ -67,41 +68,83 @@ public class RewardManager {
         return rewardsConfig;
     }
 
+    /**
+     * 领取生日福利：先在数据库中领取，成功后发放奖励并保存
+     * 需要在主线程调用，调用前应已检查生日、领取窗口和今年的领取状态
+     */
+    public void claimRewards(Player player, PlayerData playerData) {
+        PlayerDataManager playerDataManager = plugin.getPlayerDataManager();
+        MessageManager messageManager = plugin.getMessageManager();
+
+        if (playerDataManager.isWritesPaused()) {
+            messageManager.send(player, "reward.claim-paused");
+            return;
+        }
+
+        playerDataManager.tryClaim(playerData).whenComplete((claimed, error) ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        // 数据库中没有领取成功，玩家可以稍后重试
+                        plugin.log(Level.WARNING, "玩家 " + player.getName() + " 领取生日福利失败: " + error.getMessage());
+                        messageManager.send(player, "reward.claim-error");
+                        return;
+                    }
+                    if (!claimed) {
+                        messageManager.send(player, "reward.already-claimed");
+                        return;
+                    }
+
+                    giveRewards(player, playerData).whenComplete((success, rewardError) -> {
+                        if (rewardError == null && success) {
+                            // 奖励在主线程发放（包括头像框），之后再保存
+                            playerDataManager.savePlayerData(playerData);
+                            messageManager.sendRewardSuccess(player);
+                            return;
+                        }
+                        // 今年的领取已经记录，需要管理员核实后重置领取状态
+                        plugin.log(Level.SEVERE, "玩家 " + player.getName() + " (" + player.getUniqueId()
+                                + ") 已领取" + LocalDate.now().getYear() + "年生日福利，但奖励没有发放成功");
+                        messageManager.send(player, "reward.give-failed");
+                    });
+                }));
+    }
+
+    /**
+     * 在主线程发放奖励，返回的Future在发放完成后完成，发放出错时结果为false
+     */
     public CompletableFuture<Boolean> giveRewards(Player player, PlayerData playerData) {
         if (!configManager.isRewardsEnabled()) {
             return CompletableFuture.completedFuture(false);
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Bukkit.getScheduler().runTask(plugin, () -> {
             try {
-                // 在主线程执行奖励发放
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    // 执行命令奖励（包含物品发放）
-                    executeCommandRewards(player);
+                // 执行命令奖励（包含物品发放）
+                executeCommandRewards(player);
 
-                    // 发放经验奖励
-                    giveExperienceReward(player);
+                // 发放经验奖励
+                giveExperienceReward(player);
 
-                    // 播放音效
-                    playSoundEffect(player);
+                // 播放音效
+                playSoundEffect(player);
 
-                    // 发射烟花
-                    launchFireworks(player);
+                // 发射烟花
+                launchFireworks(player);
 
-                    // 全服广播
-                    broadcastBirthday(player);
+                // 全服广播
+                broadcastBirthday(player);
 
-                    // 发放头像框
-                    giveAvatarFrame(player, playerData);
-                });
+                // 发放头像框
+                giveAvatarFrame(player, playerData);
 
-                return true;
+                result.complete(true);
             } catch (Exception e) {
-                plugin.getLogger().severe("发放生日福利时出错: " + e.getMessage());
-                e.printStackTrace();
-                return false;
+                plugin.getLogger().log(Level.SEVERE, "发放生日福利时出错", e);
+                result.complete(false);
             }
         });
+        return result;
     }
 
     private void executeCommandRewards(Player player) {
@@ -5,9 +5,18 @@ import java.time.MonthDay;
 import java.time.Period;
 import java.time.temporal.ChronoUnit;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PlayerData {
 
+    // 字段分组，记录自上次保存以来修改过哪些列，保存时只更新这些列
+    public static final int DIRTY_NAME = 1;
+    public static final int DIRTY_BIRTHDAY = 1 << 1;
+    public static final int DIRTY_CLAIM = 1 << 2;
+    public static final int DIRTY_MODIFY = 1 << 3;
+    public static final int DIRTY_AVATAR_FRAME = 1 << 4;
+    public static final int DIRTY_ALL = DIRTY_NAME | DIRTY_BIRTHDAY | DIRTY_CLAIM | DIRTY_MODIFY | DIRTY_AVATAR_FRAME;
+
     private final UUID uuid;
     private String playerName;
     private LocalDate birthDate;  // 完整出生日期（年月日）
@@ -16,9 +25,14 @@ public class PlayerData {
     private int modifyCountThisYear;
     private int lastModifyYear;
     private LocalDate avatarFrameExpiry;
+    private int totalClaimCount;
+    private LocalDate firstClaimDate;
     private LocalDate createdAt;
     private LocalDate updatedAt;
 
+    private final AtomicInteger dirtyFields = new AtomicInteger();
+    private volatile boolean persisted;
+
     public PlayerData(UUID uuid) {
         this.uuid = uuid;
         this.lastClaimYear = 0;
@@ -32,6 +46,7 @@ public class PlayerData {
                       int lastClaimYear, LocalDate lastClaimDate,
                       int modifyCountThisYear, int lastModifyYear,
                       LocalDate avatarFrameExpiry,
+                      int totalClaimCount, LocalDate firstClaimDate,
                       LocalDate createdAt, LocalDate updatedAt) {
         this.uuid = uuid;
         this.playerName = playerName;
@@ -41,8 +56,11 @@ public class PlayerData {
         this.modifyCountThisYear = modifyCountThisYear;
         this.lastModifyYear = lastModifyYear;
         this.avatarFrameExpiry = avatarFrameExpiry;
+        this.totalClaimCount = totalClaimCount;
+        this.firstClaimDate = firstClaimDate;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.persisted = true;
     }
 
     public boolean hasBirthdaySet() {
@@ -134,6 +152,7 @@ public class PlayerData {
             modifyCountThisYear++;
         }
         this.updatedAt = LocalDate.now();
+        markDirty(DIRTY_MODIFY);
     }
 
     public int getRemainingModifyCount(int modifyLimit) {
@@ -148,9 +167,22 @@ public class PlayerData {
     }
 
     public void markClaimed() {
-        this.lastClaimYear = LocalDate.now().getYear();
-        this.lastClaimDate = LocalDate.now();
-        this.updatedAt = LocalDate.now();
+        markClaimed(LocalDate.now().getYear());
+    }
+
+    /**
+     * 记录一次领取，同时累加总领取次数，首次领取时记下日期
+     */
+    public void markClaimed(int year) {
+        LocalDate today = LocalDate.now();
+        this.lastClaimYear = year;
+        this.lastClaimDate = today;
+        this.totalClaimCount++;
+        if (this.firstClaimDate == null) {
+            this.firstClaimDate = today;
+        }
+        this.updatedAt = today;
+        markDirty(DIRTY_CLAIM);
     }
 
     public boolean hasValidAvatarFrame() {
@@ -158,6 +190,45 @@ public class PlayerData {
         return !LocalDate.now().isAfter(avatarFrameExpiry);
     }
 
+    /**
+     * 创建一份与当前数据相同的副本（视为已保存，没有修改标记）
+     */
+    public PlayerData copy() {
+        return new PlayerData(uuid, playerName, birthDate, lastClaimYear, lastClaimDate,
+                modifyCountThisYear, lastModifyYear, avatarFrameExpiry, totalClaimCount, firstClaimDate,
+                createdAt, updatedAt);
+    }
+
+    /**
+     * 是否已写入过数据库（从数据库加载或保存成功过）
+     */
+    public boolean isPersisted() {
+        return persisted;
+    }
+
+    public void markPersisted() {
+        this.persisted = true;
+    }
+
+    public int getDirtyFields() {
+        return dirtyFields.get();
+    }
+
+    /**
+     * 取出并清空修改标记，保存失败时需要用 {@link #markDirty(int)} 放回
+     */
+    public int takeDirtyFields() {
+        return dirtyFields.getAndSet(0);
+    }
+
+    public void markDirty(int fields) {
+        dirtyFields.getAndUpdate(current -> current | fields);
+    }
+
+    public void clearDirtyFields(int fields) {
+        dirtyFields.getAndUpdate(current -> current & ~fields);
+    }
+
     // Getters and Setters
     public UUID getUuid() {
         return uuid;
@@ -170,6 +241,7 @@ public class PlayerData {
     public void setPlayerName(String playerName) {
         this.playerName = playerName;
         this.updatedAt = LocalDate.now();
+        markDirty(DIRTY_NAME);
     }
 
     public LocalDate getBirthDate() {
@@ -179,6 +251,7 @@ public class PlayerData {
     public void setBirthDate(LocalDate birthDate) {
         this.birthDate = birthDate;
         this.updatedAt = LocalDate.now();
+        markDirty(DIRTY_BIRTHDAY);
     }
 
     /**
@@ -195,6 +268,7 @@ public class PlayerData {
     public void setLastClaimYear(int lastClaimYear) {
         this.lastClaimYear = lastClaimYear;
         this.updatedAt = LocalDate.now();
+        markDirty(DIRTY_CLAIM);
     }
 
     public LocalDate getLastClaimDate() {
@@ -204,6 +278,7 @@ public class PlayerData {
     public void setLastClaimDate(LocalDate lastClaimDate) {
         this.lastClaimDate = lastClaimDate;
         this.updatedAt = LocalDate.now();
+        markDirty(DIRTY_CLAIM);
     }
 
     public int getModifyCountThisYear() {
@@ -221,6 +296,7 @@ public class PlayerData {
     public void setAvatarFrameExpiry(LocalDate avatarFrameExpiry) {
         this.avatarFrameExpiry = avatarFrameExpiry;
         this.updatedAt = LocalDate.now();
+        markDirty(DIRTY_AVATAR_FRAME);
     }
 
     public LocalDate getCreatedAt() {
@@ -254,14 +330,14 @@ public class PlayerData {
      * 获取总领取次数
      */
     public int getTotalClaimCount() {
-        return lastClaimYear > 0 ? 1 : 0;
+        return totalClaimCount;
     }
 
     /**
      * 获取首次领取日期
      */
     public LocalDate getFirstClaimDate() {
-        return lastClaimDate;
+        return firstClaimDate;
     }
 
     /**
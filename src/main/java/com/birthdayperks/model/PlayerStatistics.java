@@ -0,0 +1,59 @@
+package com.birthdayperks.model;
+
+/**
+ * 玩家数据的汇总统计，由数据库聚合查询得出
+ */
+public class PlayerStatistics {
+
+    private final long totalPlayers;
+    private final long playersWithoutBirthday;
+    // 下标0-11对应1-12月
+    private final long[] birthdaysPerMonth;
+    private final long claimsThisYear;
+    private final long activeAvatarFrames;
+    private final long computedAt;
+
+    public PlayerStatistics(long totalPlayers, long playersWithoutBirthday, long[] birthdaysPerMonth,
+                            long claimsThisYear, long activeAvatarFrames) {
+        this.totalPlayers = totalPlayers;
+        this.playersWithoutBirthday = playersWithoutBirthday;
+        this.birthdaysPerMonth = birthdaysPerMonth.clone();
+        this.claimsThisYear = claimsThisYear;
+        this.activeAvatarFrames = activeAvatarFrames;
+        this.computedAt = System.currentTimeMillis();
+    }
+
+    public long getTotalPlayers() {
+        return totalPlayers;
+    }
+
+    public long getPlayersWithoutBirthday() {
+        return playersWithoutBirthday;
+    }
+
+    public long getPlayersWithBirthday() {
+        return totalPlayers - playersWithoutBirthday;
+    }
+
+    /**
+     * @param month 1-12
+     */
+    public long getBirthdaysInMonth(int month) {
+        return birthdaysPerMonth[month - 1];
+    }
+
+    public long getClaimsThisYear() {
+        return claimsThisYear;
+    }
+
+    public long getActiveAvatarFrames() {
+        return activeAvatarFrames;
+    }
+
+    /**
+     * 统计完成的时间（毫秒时间戳）
+     */
+    public long getComputedAt() {
+        return computedAt;
+    }
+}
@@ -0,0 +1,152 @@
+package com.birthdayperks.sync;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 通过BungeeCord插件消息（Forward 到所有服务器）传递通知
+ * 插件消息需要借助在线玩家的连接发送，没有玩家在线时通知保留到有玩家上线后再发出
+ */
+public class BungeeTransport implements InvalidationTransport, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "PlayerBirthdayPerks";
+    // 单条插件消息最多携带的UUID数量，保持在32KB的消息上限以内
+    private static final int MAX_BATCH = 1000;
+    private static final int MAX_PENDING = 10000;
+
+    private final PlayerBirthdayPerks plugin;
+    private final String source;
+    private final long intervalMillis;
+
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private Consumer<UUID> listener;
+    private BukkitTask task;
+
+    public BungeeTransport(PlayerBirthdayPerks plugin, String source) {
+        this.plugin = plugin;
+        this.source = source;
+        this.intervalMillis = Math.max(50, plugin.getConfigManager().getCacheSyncInterval());
+    }
+
+    @Override
+    public void start(Consumer<UUID> listener) {
+        this.listener = listener;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+        long intervalTicks = Math.max(1, intervalMillis / 50);
+        // 插件消息只能在主线程发送
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, intervalTicks, intervalTicks);
+    }
+
+    @Override
+    public void publish(UUID uuid) {
+        if (pending.size() < MAX_PENDING) {
+            pending.add(uuid);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flush();
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin);
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin);
+    }
+
+    @Override
+    public String getName() {
+        return "bungee";
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Iterator<? extends Player> players = Bukkit.getOnlinePlayers().iterator();
+        if (!players.hasNext()) {
+            return;
+        }
+        Player carrier = players.next();
+
+        List<UUID> batch = new ArrayList<>(Math.min(pending.size(), MAX_BATCH));
+        Iterator<UUID> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == MAX_BATCH || !iterator.hasNext()) {
+                carrier.sendPluginMessage(plugin, CHANNEL, encode(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    private byte[] encode(List<UUID> uuids) {
+        try {
+            ByteArrayOutputStream data = new ByteArrayOutputStream(16 * uuids.size() + 64);
+            DataOutputStream dataOut = new DataOutputStream(data);
+            dataOut.writeUTF(source);
+            dataOut.writeShort(uuids.size());
+            for (UUID uuid : uuids) {
+                dataOut.writeLong(uuid.getMostSignificantBits());
+                dataOut.writeLong(uuid.getLeastSignificantBits());
+            }
+
+            ByteArrayOutputStream message = new ByteArrayOutputStream(data.size() + 48);
+            DataOutputStream out = new DataOutputStream(message);
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(data.size());
+            data.writeTo(out);
+            return message.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!CHANNEL.equals(channel)) {
+            return;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+            if (!SUBCHANNEL.equals(in.readUTF())) {
+                return;
+            }
+            byte[] data = new byte[in.readUnsignedShort()];
+            in.readFully(data);
+
+            DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(data));
+            if (source.equals(dataIn.readUTF())) {
+                return;
+            }
+            int count = dataIn.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                listener.accept(new UUID(dataIn.readLong(), dataIn.readLong()));
+            }
+        } catch (IOException e) {
+            plugin.debug("忽略无法解析的缓存同步消息: " + e.getMessage());
+        }
+    }
+}
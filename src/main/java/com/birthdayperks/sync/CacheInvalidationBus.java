@@ -0,0 +1,120 @@
+package com.birthdayperks.sync;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * 跨服缓存失效通知
+ * 本服保存玩家数据后发布该玩家的UUID，其他服务器收到后清除缓存，下次访问时从数据库重新加载
+ */
+public class CacheInvalidationBus {
+
+    private static final int MAX_SOURCE_LENGTH = 64;
+
+    private final PlayerBirthdayPerks plugin;
+    // 本服发布的通知的来源标识，收到自己发布的通知时忽略
+    private final String source;
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong receivedCount = new AtomicLong();
+    private volatile InvalidationTransport transport;
+
+    public CacheInvalidationBus(PlayerBirthdayPerks plugin) {
+        this.plugin = plugin;
+        // 附加随机后缀，两个服务器配置了相同的 server-id 时也不会忽略对方的通知
+        String suffix = "#" + Integer.toHexString(ThreadLocalRandom.current().nextInt());
+        String serverId = plugin.getConfigManager().getServerId();
+        int maxLength = MAX_SOURCE_LENGTH - suffix.length();
+        this.source = (serverId.length() > maxLength ? serverId.substring(0, maxLength) : serverId) + suffix;
+    }
+
+    /**
+     * 按配置创建传输方式并开始接收通知，需要在数据库初始化完成后调用
+     */
+    public void start() {
+        if (!plugin.getConfigManager().isCacheSyncEnabled()) {
+            return;
+        }
+        try {
+            InvalidationTransport created = createTransport(plugin.getConfigManager().getCacheSyncTransport().toLowerCase());
+            created.start(this::onReceived);
+            this.transport = created;
+            plugin.log(Level.INFO, "跨服缓存同步已启用 (" + created.getName() + "，来源标识 " + source + ")");
+        } catch (Exception e) {
+            plugin.log(Level.SEVERE, "跨服缓存同步启动失败: " + e.getMessage());
+        }
+    }
+
+    private InvalidationTransport createTransport(String type) {
+        return switch (type) {
+            case "sql" -> {
+                // 通知表使用 MySQL 语法，H2 以 MySQL 兼容模式运行，同样可用
+                String databaseType = plugin.getDatabase().getDatabaseType();
+                if (!"mysql".equalsIgnoreCase(databaseType) && !"h2".equalsIgnoreCase(databaseType)) {
+                    throw new IllegalStateException("sql 同步方式仅支持 mysql 和 h2 数据库，当前为 " + databaseType);
+                }
+                List<HikariDataSource> dataSources = plugin.getDatabase().getDataSources();
+                // 第一个连接池是主库，不读从库以免因复制延迟漏掉通知
+                yield new ChangeLogTransport(plugin, dataSources.get(0), source);
+            }
+            case "bungee" -> new BungeeTransport(plugin, source);
+            default -> throw new IllegalArgumentException("未知的同步方式: " + type);
+        };
+    }
+
+    /**
+     * 发布玩家数据已修改的通知，未开启同步时不做任何事
+     */
+    public void publish(UUID uuid) {
+        InvalidationTransport current = transport;
+        if (current != null) {
+            current.publish(uuid);
+            publishedCount.incrementAndGet();
+        }
+    }
+
+    private void onReceived(UUID uuid) {
+        receivedCount.incrementAndGet();
+        // 重新加载时从主库读取，从库可能还没有复制到这次修改
+        plugin.getDatabase().markRemoteWrite(uuid);
+        plugin.getPlayerDataManager().invalidateCache(uuid);
+        plugin.debug("其他服务器修改了玩家数据，已清除缓存: " + uuid);
+    }
+
+    /**
+     * 停止同步并发出尚未发送的通知（关服时在关闭数据库之前调用）
+     */
+    public void close() {
+        InvalidationTransport current = transport;
+        transport = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return transport != null;
+    }
+
+    public String getTransportName() {
+        InvalidationTransport current = transport;
+        return current != null ? current.getName() : null;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+}
@@ -0,0 +1,255 @@
+package com.birthdayperks.sync;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * 通过 MySQL（或MySQL兼容模式的H2）数据库中的 birthday_change_log 表传递通知
+ * 每个服务器定时把待发布的UUID批量插入表中，并按自增序号读取其他服务器插入的新记录
+ */
+public class ChangeLogTransport implements InvalidationTransport {
+
+    private static final String TABLE_NAME = "birthday_change_log";
+    private static final int POLL_LIMIT = 500;
+    // 待发布的通知数量上限，数据库持续不可用时丢弃多余的通知
+    private static final int MAX_PENDING = 10000;
+    // 序号出现空缺时最多等待多久：可能是尚未提交的事务，也可能是被跳过的自增值
+    private static final long GAP_TIMEOUT_MILLIS = 10000;
+    private static final long CLEANUP_INTERVAL_MILLIS = 60000;
+
+    private final PlayerBirthdayPerks plugin;
+    private final DataSource dataSource;
+    private final String source;
+    private final long intervalMillis;
+    private final long retentionMillis;
+
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private Consumer<UUID> listener;
+    private BukkitTask task;
+
+    // 以下字段只在持有锁时访问
+    private boolean initialized;
+    private boolean failing;
+    // 不大于此序号的记录都已处理
+    private long watermark;
+    // 大于 watermark 但已经处理过的序号
+    private final TreeSet<Long> seen = new TreeSet<>();
+    private long gapSince;
+    private long lastCleanup;
+
+    public ChangeLogTransport(PlayerBirthdayPerks plugin, DataSource dataSource, String source) {
+        this.plugin = plugin;
+        this.dataSource = dataSource;
+        this.source = source;
+        this.intervalMillis = Math.max(50, plugin.getConfigManager().getCacheSyncInterval());
+        this.retentionMillis = Math.max(60, plugin.getConfigManager().getCacheSyncRetentionSeconds()) * 1000L;
+    }
+
+    @Override
+    public void start(Consumer<UUID> listener) {
+        this.listener = listener;
+        long intervalTicks = Math.max(1, intervalMillis / 50);
+        // 建表和读取当前序号放在第一次轮询中，不阻塞调用线程
+        task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::tick, 1L, intervalTicks);
+    }
+
+    @Override
+    public void publish(UUID uuid) {
+        if (pending.size() < MAX_PENDING) {
+            pending.add(uuid);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (!initialized || pending.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            flushPending(conn);
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "关闭时发送缓存同步通知失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "sql";
+    }
+
+    private synchronized void tick() {
+        if (task == null) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            if (!initialized) {
+                createTable(conn);
+                watermark = currentSequence(conn);
+                initialized = true;
+                plugin.debug("缓存同步从序号 " + watermark + " 开始");
+            }
+            flushPending(conn);
+            poll(conn);
+            cleanup(conn);
+            if (failing) {
+                failing = false;
+                plugin.log(Level.INFO, "缓存同步已恢复");
+            }
+        } catch (SQLException e) {
+            // 只在第一次失败时输出警告，避免每次轮询都刷屏
+            if (!failing) {
+                failing = true;
+                plugin.log(Level.WARNING, "缓存同步访问数据库失败，稍后重试: " + e.getMessage());
+            }
+        }
+    }
+
+    private void createTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+                    "seq BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                    "uuid VARCHAR(36) NOT NULL, " +
+                    "source VARCHAR(64) NOT NULL, " +
+                    "created_at BIGINT NOT NULL" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci");
+        }
+    }
+
+    private long currentSequence(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(seq) FROM " + TABLE_NAME)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 把待发布的通知在一个事务中批量插入，失败时放回队列
+     */
+    private void flushPending(Connection conn) throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<UUID> batch = new ArrayList<>(pending.size());
+        Iterator<UUID> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+
+        long now = System.currentTimeMillis();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO " + TABLE_NAME + " (uuid, source, created_at) VALUES (?, ?, ?)")) {
+            for (UUID uuid : batch) {
+                stmt.setString(1, uuid.toString());
+                stmt.setString(2, source);
+                stmt.setLong(3, now);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            pending.addAll(batch);
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 读取 watermark 之后的记录，跳过自己发布的和已处理过的
+     */
+    private void poll(Connection conn) throws SQLException {
+        long after = watermark;
+        while (true) {
+            int rows = 0;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT seq, uuid, source FROM " + TABLE_NAME +
+                    " WHERE seq > ? ORDER BY seq LIMIT " + POLL_LIMIT)) {
+                stmt.setLong(1, after);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        after = rs.getLong(1);
+                        if (!seen.add(after) || source.equals(rs.getString(3))) {
+                            continue;
+                        }
+                        try {
+                            listener.accept(UUID.fromString(rs.getString(2)));
+                        } catch (IllegalArgumentException e) {
+                            plugin.debug("忽略无效的缓存同步记录: " + rs.getString(2));
+                        }
+                    }
+                }
+            }
+            if (rows < POLL_LIMIT) {
+                break;
+            }
+        }
+        advanceWatermark();
+    }
+
+    private void advanceWatermark() {
+        while (!seen.isEmpty()) {
+            long next = watermark + 1;
+            if (seen.remove(next)) {
+                watermark = next;
+                gapSince = 0;
+                continue;
+            }
+
+            long now = System.currentTimeMillis();
+            if (gapSince == 0) {
+                gapSince = now;
+                return;
+            }
+            if (now - gapSince < GAP_TIMEOUT_MILLIS) {
+                return;
+            }
+            // 等待超时，视为不会再出现的序号
+            watermark = seen.first() - 1;
+            gapSince = 0;
+        }
+    }
+
+    private void cleanup(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup < CLEANUP_INTERVAL_MILLIS) {
+            return;
+        }
+        lastCleanup = now;
+        // 始终保留序号最大的一行，避免数据库重启后自增值从头开始（MySQL 5.7 不持久化自增计数器）
+        long last = currentSequence(conn);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM " + TABLE_NAME + " WHERE created_at < ? AND seq < ?")) {
+            stmt.setLong(1, now - retentionMillis);
+            stmt.setLong(2, last);
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                plugin.debug("已清理 " + deleted + " 条过期的缓存同步记录");
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.birthdayperks.sync;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 跨服缓存失效通知的传输方式
+ */
+public interface InvalidationTransport {
+
+    /**
+     * 开始接收其他服务器的通知，不应阻塞调用线程
+     *
+     * @param listener 收到其他服务器发布的玩家UUID时调用（可能在任意线程中）
+     */
+    void start(Consumer<UUID> listener) throws Exception;
+
+    /**
+     * 发布玩家数据已修改的通知，可以延迟到下一次发送时批量发出
+     */
+    void publish(UUID uuid);
+
+    /**
+     * 停止接收，并尽量发出尚未发送的通知
+     */
+    void close();
+
+    /**
+     * 传输方式名称，用于日志和统计
+     */
+    String getName();
+}
@@ -106,6 +106,36 @@ public class DateUtil {
         return birthdayThisYear.isBefore(today);
     }
 
+    /**
+     * 获取月日在闰年中的序号 (1-366)，2月29日固定为60
+     * 用于数据库中的 birthday_doy 列，保证每个月日都有唯一且有序的值
+     */
+    public static int toLeapDayOfYear(int month, int day) {
+        return LocalDate.of(2000, month, day).getDayOfYear();
+    }
+
+    /**
+     * 计算未来N天内（不含今天）生日对应的 birthday_doy 区间
+     * 返回 {起始, 结束}，起始大于结束表示跨年；返回null表示覆盖全年
+     * 非闰年的2月28日同时包含2月29日出生的玩家
+     */
+    public static int[] getUpcomingDayOfYearRange(LocalDate today, int days) {
+        // 距离下次生日最多366天（闰年的2月29日）
+        if (days >= 366) {
+            return null;
+        }
+
+        LocalDate start = today.plusDays(1);
+        LocalDate end = today.plusDays(days);
+
+        int startDoy = toLeapDayOfYear(start.getMonthValue(), start.getDayOfMonth());
+        int endDoy = toLeapDayOfYear(end.getMonthValue(), end.getDayOfMonth());
+        if (!end.isLeapYear() && end.getMonthValue() == 2 && end.getDayOfMonth() == 28) {
+            endDoy = 60;
+        }
+        return new int[]{startDoy, endDoy};
+    }
+
     /**
      * 获取生日的中文星座
      */
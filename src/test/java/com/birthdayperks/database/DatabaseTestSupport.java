@@ -0,0 +1,65 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.manager.ConfigManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 在没有服务器的环境中创建数据库实现所需的插件实例
+ */
+public final class DatabaseTestSupport {
+
+    private static final Logger LOGGER = Logger.getLogger("PlayerBirthdayPerks");
+
+    private DatabaseTestSupport() {
+    }
+
+    /**
+     * 创建只提供配置、数据目录和日志的插件，未设置的配置项使用 ConfigManager 中的默认值
+     * 定时任务只会返回空任务，不会执行；需要执行时从 {@link Bukkit#getScheduler()} 中取出提交的任务
+     */
+    public static PlayerBirthdayPerks mockPlugin(File dataFolder, Map<String, Object> settings) {
+        installServer();
+
+        YamlConfiguration config = new YamlConfiguration();
+        settings.forEach(config::set);
+
+        PlayerBirthdayPerks plugin = mock(PlayerBirthdayPerks.class);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getLogger()).thenReturn(LOGGER);
+
+        ConfigManager configManager = new ConfigManager(plugin);
+        configManager.loadConfig();
+        when(plugin.getConfigManager()).thenReturn(configManager);
+        return plugin;
+    }
+
+    private static synchronized void installServer() {
+        if (Bukkit.getServer() != null) {
+            return;
+        }
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(scheduler.runTaskTimerAsynchronously(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenAnswer(invocation -> mock(BukkitTask.class));
+
+        Server server = mock(Server.class);
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(server.getLogger()).thenReturn(LOGGER);
+        Bukkit.setServer(server);
+    }
+}
@@ -0,0 +1,185 @@
+package com.birthdayperks.database;
+
+import com.birthdayperks.model.PlayerData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 在H2内存模式（MySQL兼容）下运行数据库实现
+ * 所有用例共用一个数据库，每个用例使用自己的玩家UUID
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class H2DatabaseTest {
+
+    @TempDir
+    File dataFolder;
+
+    private H2Database database;
+
+    @BeforeAll
+    void open() throws Exception {
+        database = new H2Database(DatabaseTestSupport.mockPlugin(dataFolder, Map.of(
+                "database.type", "h2",
+                "database.h2.mode", "memory")));
+        database.initialize();
+    }
+
+    @AfterAll
+    void close() {
+        database.close();
+    }
+
+    private PlayerData newPlayer(String name, LocalDate birthDate) {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        data.setPlayerName(name);
+        data.setBirthDate(birthDate);
+        return data;
+    }
+
+    @Test
+    void savesAndLoadsPlayer() {
+        PlayerData data = newPlayer("Alice", LocalDate.of(2000, 2, 29));
+        database.savePlayerData(data).join();
+
+        PlayerData loaded = database.getPlayerData(data.getUuid()).join();
+        assertNotNull(loaded);
+        assertEquals("Alice", loaded.getPlayerName());
+        assertEquals(LocalDate.of(2000, 2, 29), loaded.getBirthDate());
+        assertEquals(0, loaded.getLastClaimYear());
+        assertTrue(loaded.isPersisted());
+        assertTrue(database.playerDataExists(data.getUuid()).join());
+        assertNull(database.getPlayerData(UUID.randomUUID()).join());
+    }
+
+    @Test
+    void partialUpdateKeepsOtherColumns() {
+        PlayerData data = newPlayer("Bob", LocalDate.of(1995, 7, 14));
+        database.savePlayerData(data).join();
+
+        // 另一份数据只修改了名称，保存时不能覆盖生日
+        PlayerData stale = database.getPlayerData(data.getUuid()).join();
+        stale.setBirthDate(LocalDate.of(1990, 1, 1));
+        stale.clearDirtyFields(PlayerData.DIRTY_BIRTHDAY);
+        stale.setPlayerName("Bobby");
+        database.savePlayerData(stale).join();
+
+        PlayerData loaded = database.getPlayerData(data.getUuid()).join();
+        assertEquals("Bobby", loaded.getPlayerName());
+        assertEquals(LocalDate.of(1995, 7, 14), loaded.getBirthDate());
+    }
+
+    @Test
+    void upsertsPersistedPlayerWithMissingRow() {
+        PlayerData ghost = new PlayerData(UUID.randomUUID(), "Ghost", null, 0, null, 0, 0, null, 0, null,
+                LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 1));
+        ghost.markPersisted();
+        ghost.setPlayerName("Ghost2");
+        database.savePlayerData(ghost).join();
+
+        assertEquals("Ghost2", database.getPlayerData(ghost.getUuid()).join().getPlayerName());
+    }
+
+    @Test
+    void batchSaveAndBulkLoad() {
+        List<PlayerData> batch = new ArrayList<>();
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            PlayerData data = newPlayer("batch" + i, LocalDate.of(1990, 1 + i % 12, 1 + i % 28));
+            batch.add(data);
+            uuids.add(data.getUuid());
+        }
+        database.savePlayerData(batch).join();
+
+        uuids.add(UUID.randomUUID());
+        Map<UUID, PlayerData> loaded = database.getPlayerData(uuids).join();
+        assertEquals(600, loaded.size());
+        assertEquals("batch42", loaded.get(uuids.get(42)).getPlayerName());
+    }
+
+    @Test
+    void claimsOncePerYear() {
+        PlayerData data = newPlayer("Carol", LocalDate.now());
+        database.savePlayerData(data).join();
+        int year = LocalDate.now().getYear();
+
+        assertTrue(database.tryClaim(data.getUuid(), year).join());
+        assertFalse(database.tryClaim(data.getUuid(), year).join());
+        assertFalse(database.tryClaim(UUID.randomUUID(), year).join());
+
+        PlayerData loaded = database.getPlayerData(data.getUuid()).join();
+        assertEquals(year, loaded.getLastClaimYear());
+        assertEquals(1, loaded.getTotalClaimCount());
+        assertEquals(LocalDate.now(), loaded.getFirstClaimDate());
+    }
+
+    @Test
+    void writesForOnePlayerKeepSubmissionOrder() {
+        int year = LocalDate.now().getYear();
+        List<PlayerData> players = new ArrayList<>();
+        List<CompletableFuture<Boolean>> claims = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            // 不等待插入完成就领取，条件更新必须排在插入之后
+            PlayerData data = newPlayer("order" + i, null);
+            database.savePlayerData(data);
+            claims.add(database.tryClaim(data.getUuid(), year));
+            players.add(data);
+        }
+        for (CompletableFuture<Boolean> claim : claims) {
+            assertTrue(claim.join());
+        }
+
+        // 删除之前提交的保存不能在删除之后才执行，让这一行复活
+        PlayerData data = players.get(0);
+        data.setPlayerName("order-renamed");
+        database.savePlayerData(data);
+        database.deletePlayerData(data.getUuid()).join();
+        assertNull(database.getPlayerData(data.getUuid()).join());
+    }
+
+    @Test
+    void findsByNameIgnoringCase() {
+        PlayerData data = newPlayer("MixedCase_" + (System.nanoTime() % 1000), null);
+        database.savePlayerData(data).join();
+
+        PlayerData found = database.findByName(data.getPlayerName().toUpperCase()).join();
+        assertNotNull(found);
+        assertEquals(data.getUuid(), found.getUuid());
+    }
+
+    @Test
+    void upcomingBirthdaysIncludeTomorrow() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        PlayerData data = newPlayer("Dave", tomorrow.withYear(2004));
+        database.savePlayerData(data).join();
+
+        List<PlayerData> upcoming = database.getUpcomingBirthdays(2).join();
+        assertTrue(upcoming.stream().anyMatch(p -> p.getUuid().equals(data.getUuid())));
+    }
+
+    @Test
+    void deletesPlayer() {
+        PlayerData data = newPlayer("Eve", null);
+        database.savePlayerData(data).join();
+
+        database.deletePlayerData(data.getUuid()).join();
+        assertNull(database.getPlayerData(data.getUuid()).join());
+        assertFalse(database.playerDataExists(data.getUuid()).join());
+    }
+}
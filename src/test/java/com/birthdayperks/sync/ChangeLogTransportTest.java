@@ -0,0 +1,134 @@
+package com.birthdayperks.sync;
+
+import com.birthdayperks.PlayerBirthdayPerks;
+import com.birthdayperks.database.DatabaseTestSupport;
+import com.birthdayperks.database.H2Database;
+import com.birthdayperks.manager.PlayerDataManager;
+import com.birthdayperks.model.PlayerData;
+import org.bukkit.Bukkit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 两个插件实例通过同一个H2数据库（MySQL兼容模式）的 birthday_change_log 表同步缓存
+ * 轮询任务不由调度器执行，由用例手动调用，结果不依赖时间
+ */
+class ChangeLogTransportTest {
+
+    @TempDir
+    File dataFolder;
+
+    private H2Database database;
+    private Node a;
+    private Node b;
+
+    @BeforeEach
+    void open() throws Exception {
+        database = new H2Database(DatabaseTestSupport.mockPlugin(new File(dataFolder, "db"), Map.of(
+                "database.type", "h2",
+                "database.h2.mode", "memory")));
+        database.initialize();
+        a = new Node("server-a");
+        b = new Node("server-b");
+        // 第一次轮询建表并记录当前序号
+        a.tick();
+        b.tick();
+    }
+
+    @AfterEach
+    void close() {
+        a.bus.close();
+        b.bus.close();
+        database.close();
+    }
+
+    @Test
+    void publishEvictsCacheOnOtherInstance() {
+        UUID uuid = savePlayer("Alice");
+        assertNotNull(a.manager.getPlayerData(uuid).join());
+        assertNotNull(b.manager.getPlayerData(uuid).join());
+        assertNotNull(b.manager.getCachedPlayerData(uuid));
+
+        a.bus.publish(uuid);
+        a.tick();
+        b.tick();
+
+        assertNull(b.manager.getCachedPlayerData(uuid));
+        assertNotNull(a.manager.getCachedPlayerData(uuid));
+        assertEquals(1, b.bus.getReceivedCount());
+    }
+
+    @Test
+    void instancesIgnoreTheirOwnNotifications() {
+        UUID fromA = savePlayer("Bob");
+        UUID fromB = savePlayer("Carol");
+        a.manager.getPlayerData(fromA).join();
+        b.manager.getPlayerData(fromB).join();
+
+        a.bus.publish(fromA);
+        b.bus.publish(fromB);
+        a.tick();
+        b.tick();
+        a.tick();
+
+        assertNotNull(a.manager.getCachedPlayerData(fromA));
+        assertNotNull(b.manager.getCachedPlayerData(fromB));
+        assertEquals(1, a.bus.getPublishedCount());
+        assertEquals(1, a.bus.getReceivedCount());
+        assertEquals(1, b.bus.getReceivedCount());
+    }
+
+    private UUID savePlayer(String name) {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        data.setPlayerName(name);
+        database.savePlayerData(data).join();
+        return data.getUuid();
+    }
+
+    /**
+     * 一个插件实例：独立的配置、玩家数据缓存和同步通道，共用同一个数据库
+     */
+    private final class Node {
+        private final PlayerDataManager manager;
+        private final CacheInvalidationBus bus;
+        private final Runnable tick;
+
+        Node(String serverId) {
+            PlayerBirthdayPerks plugin = DatabaseTestSupport.mockPlugin(new File(dataFolder, serverId), Map.of(
+                    "server-id", serverId,
+                    "cache.sync.enabled", true,
+                    "cache.sync.transport", "sql"));
+            when(plugin.getDatabase()).thenReturn(database);
+            manager = new PlayerDataManager(plugin);
+            when(plugin.getPlayerDataManager()).thenReturn(manager);
+
+            bus = new CacheInvalidationBus(plugin);
+            bus.start();
+            assertTrue(bus.isEnabled());
+
+            ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+            verify(Bukkit.getScheduler()).runTaskTimerAsynchronously(same(plugin), task.capture(), anyLong(), anyLong());
+            tick = task.getValue();
+        }
+
+        void tick() {
+            tick.run();
+        }
+    }
+}